@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCircuitBreakers;
+import ru.practicum.shareit.client.ServerHttpClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerStreamClient;
 import ru.practicum.shareit.exception.StateException;
 
 @Service
@@ -20,46 +32,77 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerHttpClient client,
+                         ServerStreamClient streamClient, ServerResponseCache responseCache,
+                         InFlightRequests inFlightRequests, ServerCircuitBreakers circuitBreakers) {
+        super(client, streamClient, responseCache, inFlightRequests, circuitBreakers, serverUrl, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, String state, Integer from, Integer size) {
-        State value = State.from(state)
-                .orElseThrow(() -> new StateException("Unknown state: " + state));
-        Map<String, Object> parameters = Map.of(
-                "state", value,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getBookings(Long userId, String state,
+                                                                                Integer from, Integer size,
+                                                                                LocalDateTime afterStart,
+                                                                                Long afterId) {
+        Map<String, Object> parameters = pageParameters(state, from, size, afterStart, afterId);
+        return streamedGet("?" + pageQuery(parameters), userId, parameters);
     }
 
 
-    public ResponseEntity<Object> bookItem(Long userId, BookingDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(Long userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllById(Long userId, List<Long> ids) {
+        Map<String, Object> parameters = Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids));
+        return get("?ids={ids}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateStatus(Long userId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatus(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return evicting(patch("/" + bookingId + "?approved={approved}", userId, parameters, null), "/items");
+    }
+
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getOwnerBookings(Long userId, String state,
+                                                                                     Integer from, Integer size,
+                                                                                     LocalDateTime afterStart,
+                                                                                     Long afterId) {
+        Map<String, Object> parameters = pageParameters(state, from, size, afterStart, afterId);
+        return streamedGet("/owner?" + pageQuery(parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, String state,
-                                                   Integer from, Integer size) {
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(Long userId, String state, String format)
+            throws IOException {
         State value = State.from(state)
                 .orElseThrow(() -> new StateException("Unknown state: " + state));
-        Map<String, Object> parameters = Map.of(
-                "state", value,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        Map<String, Object> parameters = Map.of("state", value,
+                "format", format.toUpperCase(Locale.ROOT));
+        return stream(HttpMethod.GET, "/owner/export?state={state}&format={format}", userId, parameters, null, null,
+                "application/x-ndjson, text/csv, application/json");
+    }
+
+    private Map<String, Object> pageParameters(String state, Integer from, Integer size,
+                                               LocalDateTime afterStart, Long afterId) {
+        State value = State.from(state)
+                .orElseThrow(() -> new StateException("Unknown state: " + state));
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", value);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (afterStart != null) {
+            parameters.put("afterStart", afterStart);
+        }
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+        }
+        return parameters;
+    }
+
+    private String pageQuery(Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
     }
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import lombok.RequiredArgsConstructor;
@@ -10,8 +12,15 @@ import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -26,46 +35,65 @@ public class BookingController {
 	private static final String USER_ID = "X-Sharer-User-Id";
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID) Long userId,
-											  @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-											  @PositiveOrZero
-											  @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive
-											  @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public CompletableFuture<ResponseEntity<StreamingResponseBody>> getBookings(
+			@RequestHeader(USER_ID) Long userId,
+			@RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+			@RequestParam(required = false) Long afterId) {
 		log.info("start getting booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, stateParam, from, size);
+		return bookingClient.getBookings(userId, stateParam, from, size, afterStart, afterId);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID) Long userId,
-										   @RequestBody @Valid BookingDto requestDto) {
+	public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader(USER_ID) Long userId,
+														      @RequestBody @Valid BookingDto requestDto) {
 		log.info("start creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
+	@GetMapping(params = "ids")
+	public CompletableFuture<ResponseEntity<Object>> getAllById(@RequestHeader(USER_ID) Long userId,
+																@RequestParam @NotEmpty @Size(max = 200) List<Long> ids) {
+		log.info("start getting bookings {}, userId={}", ids, userId);
+		return bookingClient.getAllById(userId, ids);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID) Long userId,
-											 @PathVariable Long bookingId) {
+	public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID) Long userId,
+															    @PathVariable Long bookingId) {
 		log.info("start getting booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> updateStatus(@RequestHeader(USER_ID) Long userId,
-											   @PathVariable Long bookingId,
-											   @RequestParam Boolean approved) {
+	public CompletableFuture<ResponseEntity<Object>> updateStatus(@RequestHeader(USER_ID) Long userId,
+															      @PathVariable Long bookingId,
+															      @RequestParam Boolean approved) {
 		log.info("start updating booking status; booking {}, user {}, new status {}", bookingId, userId, approved);
 		return bookingClient.updateStatus(userId, bookingId, approved);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_ID) Long userId,
-												   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-												   @RequestParam(defaultValue = "0", required = false)
-												   @PositiveOrZero Integer from,
-												   @RequestParam(defaultValue = "10", required = false)
-												   @Positive Integer size) {
+	public CompletableFuture<ResponseEntity<StreamingResponseBody>> getOwnerBookings(
+			@RequestHeader(USER_ID) Long userId,
+			@RequestParam(name = "state", defaultValue = "all") String stateParam,
+			@RequestParam(defaultValue = "0", required = false) @PositiveOrZero Integer from,
+			@RequestParam(defaultValue = "10", required = false) @Positive Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+			@RequestParam(required = false) Long afterId) {
 		log.info("start getting owners booking; user {}, state {}, from {}, size {}", userId, stateParam, from, size);
-		return bookingClient.getOwnerBookings(userId, stateParam, from, size);
+		return bookingClient.getOwnerBookings(userId, stateParam, from, size, afterStart, afterId);
+	}
+
+	@GetMapping("/owner/export")
+	public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader(USER_ID) Long userId,
+																	 @RequestParam(name = "state", defaultValue = "all") String stateParam,
+																	 @RequestParam(defaultValue = "ndjson")
+																	 @Pattern(regexp = "(?i)ndjson|csv") String format)
+			throws IOException {
+		log.info("start exporting owners bookings; user {}, state {}, format {}", userId, stateParam, format);
+		return bookingClient.exportOwnerBookings(userId, stateParam, format);
 	}
 }
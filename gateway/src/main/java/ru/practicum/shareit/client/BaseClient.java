@@ -1,121 +1,226 @@
 package ru.practicum.shareit.client;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.limit.EndpointGroup;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    protected final ServerHttpClient client;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private final ServerStreamClient streamClient;
+
+    private final ServerResponseCache responseCache;
+
+    private final InFlightRequests inFlightRequests;
+
+    private final ServerCircuitBreakers circuitBreakers;
+
+    private final EndpointGroup group;
+
+    private final String serverUrl;
+
+    private final DefaultUriBuilderFactory uriBuilderFactory;
+
+    public BaseClient(ServerHttpClient client, ServerStreamClient streamClient, ServerResponseCache responseCache,
+                      InFlightRequests inFlightRequests, ServerCircuitBreakers circuitBreakers, String serverUrl,
+                      String apiPrefix) {
+        this.client = client;
+        this.streamClient = streamClient;
+        this.responseCache = responseCache;
+        this.inFlightRequests = inFlightRequests;
+        this.circuitBreakers = circuitBreakers;
+        this.group = EndpointGroup.of(apiPrefix).orElseThrow();
+        this.serverUrl = serverUrl;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET whose answer is relayed to the caller while it arrives instead of being buffered, for lists whose size
+     * grows with the page. The caller's Accept is forwarded, so the server already answers in the format
+     * the caller wants and the bytes are never transcoded; such calls are neither cached nor coalesced.
+     */
+    protected CompletableFuture<ResponseEntity<StreamingResponseBody>> streamedGet(
+            String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        HttpHeaders headers = defaultHeaders(userId);
+        String accept = callerHeader(HttpHeaders.ACCEPT);
+        headers.set(HttpHeaders.ACCEPT, accept != null ? accept : MediaType.APPLICATION_JSON_VALUE);
+        String ifNoneMatch = callerHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return circuitBreakers.call(group, HttpMethod.GET,
+                timeout -> client.stream(HttpMethod.GET, uri, headers, timeout));
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> cachedGet(String path, Long userId) {
+        return cachedGet(path, userId, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> cachedGet(String path, Long userId,
+                                                                  @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        return responseCache.get(uri, userId, () -> sendGet(uri, userId));
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> evicting(CompletableFuture<ResponseEntity<Object>> write,
+                                                                 String... resources) {
+        return write.whenComplete((response, e) -> evict(resources));
+    }
+
+    /**
+     * Evicts the resources once the streamed answer has been relayed to the end or has failed, since the
+     * server keeps applying the write while it streams. An answer without a body evicts right away.
+     */
+    protected ResponseEntity<StreamingResponseBody> evicting(ResponseEntity<StreamingResponseBody> write,
+                                                             String... resources) {
+        StreamingResponseBody body = write.getBody();
+        if (body == null) {
+            evict(resources);
+            return write;
+        }
+        return new ResponseEntity<>(out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                evict(resources);
+            }
+        }, write.getHeaders(), write.getStatusCode());
+    }
+
+    protected void evict(String... resources) {
+        String[] uris = new String[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            uris[i] = serverUrl + resources[i];
+        }
+        inFlightRequests.forget(uris);
+        responseCache.evict(uris);
+    }
+
+    protected ResponseEntity<StreamingResponseBody> stream(HttpMethod method, String path, Long userId,
+                                                           @Nullable Map<String, Object> parameters,
+                                                           @Nullable InputStream body, @Nullable String contentType,
+                                                           String accept) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.set(HttpHeaders.ACCEPT, accept);
+        return streamClient.exchange(method, expand(path, parameters), headers, body, contentType);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = expand(path, parameters);
+        if (method == HttpMethod.GET) {
+            return sendGet(uri, userId);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return send(method, uri, defaultHeaders(userId), body);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+    private CompletableFuture<ResponseEntity<Object>> sendGet(URI uri, Long userId) {
+        HttpHeaders headers = defaultHeaders(userId);
+        String ifNoneMatch = callerHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
         }
-        return headers;
+        return inFlightRequests.join(uri, userId, ifNoneMatch, () -> send(HttpMethod.GET, uri, headers, null));
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, URI uri, HttpHeaders headers,
+                                                           @Nullable Object body) {
+        return circuitBreakers.call(group, method,
+                timeout -> client.exchange(method, uri, headers, body, timeout));
+    }
+
+    @Nullable
+    private static String callerHeader(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
         }
+        return ((ServletRequestAttributes) attributes).getRequest().getHeader(name);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private HttpHeaders defaultHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-
-        return responseBuilder.build();
+        return headers;
     }
 }
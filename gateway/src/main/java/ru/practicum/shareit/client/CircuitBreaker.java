@@ -0,0 +1,203 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker of one endpoint group.
+ * Outcomes are counted in a rolling window of time buckets; the breaker opens when the failure or slow call rate
+ * of the window crosses its threshold, rejects calls while open, then lets a few probe calls through and closes
+ * again only if all of them succeed. Every state change starts a new generation; a call is stamped with the
+ * generation it was admitted in and its outcome is ignored once the breaker has moved on, so a slow call admitted
+ * while closed can neither count as a probe nor reopen a breaker that has already recovered.
+ * It also keeps a smoothed latency and its deviation, from which the timeout of the next GET is derived,
+ * bounded by the group's configured maximum.
+ */
+class CircuitBreaker {
+
+    static final long REJECTED = -1;
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerProperties properties;
+
+    private final long maxTimeoutNanos;
+
+    private final long bucketNanos;
+
+    private final long[] bucketEpochs;
+
+    private final int[] calls;
+
+    private final int[] failures;
+
+    private final int[] slowCalls;
+
+    private final Consumer<State> transitions;
+
+    private State state = State.CLOSED;
+
+    private long generation;
+
+    private long openedAt;
+
+    private int probes;
+
+    private int probeSuccesses;
+
+    private double smoothedLatency = -1;
+
+    private double latencyDeviation;
+
+    CircuitBreaker(CircuitBreakerProperties properties, Duration maxTimeout, Consumer<State> transitions) {
+        this.properties = properties;
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.bucketNanos = properties.getWindow().toNanos() / properties.getWindowBuckets();
+        this.bucketEpochs = new long[properties.getWindowBuckets()];
+        this.calls = new int[properties.getWindowBuckets()];
+        this.failures = new int[properties.getWindowBuckets()];
+        this.slowCalls = new int[properties.getWindowBuckets()];
+        this.transitions = transitions;
+    }
+
+    /**
+     * Admits a call unless the breaker is open or out of probes.
+     *
+     * @return the generation the call is admitted in, or {@link #REJECTED}
+     */
+    synchronized long tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < properties.getOpenDuration().toNanos()) {
+                return REJECTED;
+            }
+            probes = 0;
+            probeSuccesses = 0;
+            moveTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= properties.getHalfOpenCalls()) {
+                return REJECTED;
+            }
+            probes++;
+        }
+        return generation;
+    }
+
+    synchronized void onResult(long permit, long now, long latencyNanos, boolean failure, boolean measured) {
+        if (measured) {
+            observeLatency(latencyNanos);
+        }
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open(now);
+            } else if (++probeSuccesses >= properties.getHalfOpenCalls()) {
+                clearWindow();
+                moveTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        int bucket = bucket(now);
+        calls[bucket]++;
+        if (failure) {
+            failures[bucket]++;
+        }
+        if (latencyNanos > properties.getSlowCallDuration().toNanos()) {
+            slowCalls[bucket]++;
+        }
+        long epoch = now / bucketNanos;
+        int windowCalls = 0;
+        int windowFailures = 0;
+        int windowSlowCalls = 0;
+        for (int i = 0; i < bucketEpochs.length; i++) {
+            if (epoch - bucketEpochs[i] < bucketEpochs.length) {
+                windowCalls += calls[i];
+                windowFailures += failures[i];
+                windowSlowCalls += slowCalls[i];
+            }
+        }
+        if (windowCalls >= properties.getMinimumCalls()
+                && (windowFailures * 100 >= properties.getFailureRateThreshold() * windowCalls
+                || windowSlowCalls * 100 >= properties.getSlowCallRateThreshold() * windowCalls)) {
+            open(now);
+        }
+    }
+
+    /**
+     * Releases an acquired call whose outcome says nothing about the server's health.
+     */
+    synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            probes--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized long retryAfterNanos(long now) {
+        return Math.max(0, openedAt + properties.getOpenDuration().toNanos() - now);
+    }
+
+    synchronized Duration timeout() {
+        if (smoothedLatency < 0) {
+            return Duration.ofNanos(maxTimeoutNanos);
+        }
+        long timeout = (long) (smoothedLatency + 4 * latencyDeviation);
+        return Duration.ofNanos(Math.min(maxTimeoutNanos, Math.max(properties.getMinTimeout().toNanos(), timeout)));
+    }
+
+    private void observeLatency(long latencyNanos) {
+        if (smoothedLatency < 0) {
+            smoothedLatency = latencyNanos;
+            latencyDeviation = latencyNanos / 2.0;
+            return;
+        }
+        double error = latencyNanos - smoothedLatency;
+        smoothedLatency += error / 8;
+        latencyDeviation += (Math.abs(error) - latencyDeviation) / 4;
+    }
+
+    private int bucket(long now) {
+        long epoch = now / bucketNanos;
+        int bucket = (int) Math.floorMod(epoch, (long) bucketEpochs.length);
+        if (bucketEpochs[bucket] != epoch) {
+            bucketEpochs[bucket] = epoch;
+            calls[bucket] = 0;
+            failures[bucket] = 0;
+            slowCalls[bucket] = 0;
+        }
+        return bucket;
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < bucketEpochs.length; i++) {
+            calls[i] = 0;
+            failures[i] = 0;
+            slowCalls[i] = 0;
+        }
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        moveTo(State.OPEN);
+    }
+
+    private void moveTo(State next) {
+        if (state != next) {
+            state = next;
+            generation++;
+            transitions.accept(next);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Thresholds of the circuit breakers and timeouts of server calls: a group's timeout bounds the adaptive timeout
+ * of its GETs from above and is the fixed timeout of its writes.
+ */
+@Component
+@ConfigurationProperties(prefix = "shareit-server.breaker")
+@Getter
+@Setter
+public class CircuitBreakerProperties {
+
+    private Duration window = Duration.ofSeconds(10);
+
+    private int windowBuckets = 10;
+
+    private int minimumCalls = 20;
+
+    private int failureRateThreshold = 50;
+
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    private int slowCallRateThreshold = 80;
+
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    private int halfOpenCalls = 3;
+
+    private Duration minTimeout = Duration.ofMillis(500);
+
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    private Map<EndpointGroup, Duration> timeouts = new EnumMap<>(EndpointGroup.class);
+
+    public Duration maxTimeout(EndpointGroup group) {
+        return timeouts.getOrDefault(group, defaultTimeout);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight registry of idempotent server requests.
+ * Concurrent identical requests share the call that is already in flight instead of issuing their own;
+ * every caller waits for the shared answer no longer than the configured coalescing timeout.
+ * Conditional requests are only shared between callers holding the same entity tags,
+ * so a 304 answer never reaches a caller that has nothing to revalidate.
+ * A write forgets the calls under the resources it touched, so later readers never join a call
+ * that started before the write finished.
+ */
+@Component
+@Slf4j
+public class InFlightRequests {
+
+    private final Map<RequestKey, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final long waitTimeoutMillis;
+
+    private final Counter coalesced;
+
+    public InFlightRequests(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.waitTimeoutMillis = properties.getCoalescingTimeout().toMillis();
+        this.coalesced = Counter.builder("shareit.gateway.requests.coalesced")
+                .description("requests answered by a call already in flight")
+                .register(meterRegistry);
+        meterRegistry.gauge("shareit.gateway.requests.in.flight", inFlight, Map::size);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> join(URI uri, Long viewerId,
+                                                          Supplier<CompletableFuture<ResponseEntity<Object>>> request) {
+        return join(uri, viewerId, null, request);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> join(URI uri, Long viewerId, @Nullable String ifNoneMatch,
+                                                          Supplier<CompletableFuture<ResponseEntity<Object>>> request) {
+        RequestKey key = new RequestKey(uri.toString(), viewerId, ifNoneMatch);
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> shared = inFlight.putIfAbsent(key, call);
+        if (shared != null) {
+            coalesced.increment();
+            log.debug("joined request {} already in flight", uri);
+        } else {
+            shared = call;
+            CompletableFuture<ResponseEntity<Object>> sent;
+            try {
+                sent = request.get();
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((response, e) -> {
+                inFlight.remove(key, call);
+                if (e != null) {
+                    call.completeExceptionally(e);
+                } else {
+                    call.complete(response);
+                }
+            });
+        }
+        return shared.copy().orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void forget(String... resources) {
+        inFlight.keySet().removeIf(key -> {
+            for (String resource : resources) {
+                if (key.isUnder(resource)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
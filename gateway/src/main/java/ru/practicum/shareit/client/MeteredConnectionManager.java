@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.ConnectionInitiator;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pooling connection manager that publishes pool utilization as gauges and times every connection lease.
+ * It still exposes {@link ConnPoolControl}, so the client's idle connection evictor keeps working.
+ */
+class MeteredConnectionManager implements AsyncClientConnectionManager, ConnPoolControl<HttpRoute> {
+
+    private static final String LEASE_TIMER = "shareit.gateway.pool.lease";
+
+    private final PoolingAsyncClientConnectionManager pool;
+
+    private final MeterRegistry meterRegistry;
+
+    MeteredConnectionManager(PoolingAsyncClientConnectionManager pool, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+        gauge("leased", PoolStats::getLeased);
+        gauge("available", PoolStats::getAvailable);
+        gauge("pending", PoolStats::getPending);
+        gauge("max", PoolStats::getMax);
+    }
+
+    @Override
+    public Future<AsyncConnectionEndpoint> lease(String id, HttpRoute route, Object state, Timeout requestTimeout,
+                                                 FutureCallback<AsyncConnectionEndpoint> callback) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return pool.lease(id, route, state, requestTimeout, new FutureCallback<>() {
+            @Override
+            public void completed(AsyncConnectionEndpoint endpoint) {
+                sample.stop(leaseTimer("acquired"));
+                callback.completed(endpoint);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                sample.stop(leaseTimer("failed"));
+                callback.failed(e);
+            }
+
+            @Override
+            public void cancelled() {
+                sample.stop(leaseTimer("cancelled"));
+                callback.cancelled();
+            }
+        });
+    }
+
+    @Override
+    public void release(AsyncConnectionEndpoint endpoint, Object newState, TimeValue keepAlive) {
+        pool.release(endpoint, newState, keepAlive);
+    }
+
+    @Override
+    public Future<AsyncConnectionEndpoint> connect(AsyncConnectionEndpoint endpoint,
+                                                   ConnectionInitiator connectionInitiator, Timeout connectTimeout,
+                                                   Object attachment, HttpContext context,
+                                                   FutureCallback<AsyncConnectionEndpoint> callback) {
+        return pool.connect(endpoint, connectionInitiator, connectTimeout, attachment, context, callback);
+    }
+
+    @Override
+    public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context) {
+        pool.upgrade(endpoint, attachment, context);
+    }
+
+    @Override
+    public void setMaxTotal(int max) {
+        pool.setMaxTotal(max);
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return pool.getMaxTotal();
+    }
+
+    @Override
+    public void setDefaultMaxPerRoute(int max) {
+        pool.setDefaultMaxPerRoute(max);
+    }
+
+    @Override
+    public int getDefaultMaxPerRoute() {
+        return pool.getDefaultMaxPerRoute();
+    }
+
+    @Override
+    public void setMaxPerRoute(HttpRoute route, int max) {
+        pool.setMaxPerRoute(route, max);
+    }
+
+    @Override
+    public int getMaxPerRoute(HttpRoute route) {
+        return pool.getMaxPerRoute(route);
+    }
+
+    @Override
+    public void closeIdle(TimeValue idleTime) {
+        pool.closeIdle(idleTime);
+    }
+
+    @Override
+    public void closeExpired() {
+        pool.closeExpired();
+    }
+
+    @Override
+    public Set<HttpRoute> getRoutes() {
+        return pool.getRoutes();
+    }
+
+    @Override
+    public PoolStats getTotalStats() {
+        return pool.getTotalStats();
+    }
+
+    @Override
+    public PoolStats getStats(HttpRoute route) {
+        return pool.getStats(route);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        pool.close(closeMode);
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private void gauge(String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.pool.connections", pool, manager -> value.applyAsInt(manager.getTotalStats()))
+                .description("connections of the server client pool")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    private Timer leaseTimer(String result) {
+        return Timer.builder(LEASE_TIMER)
+                .description("time spent waiting for a pooled server connection")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+
+/**
+ * Identity of an idempotent server request: its absolute URI, the user it is made for
+ * and, for a conditional request, the entity tags it is conditional on.
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor
+final class RequestKey {
+
+    private final String uri;
+
+    private final Long viewerId;
+
+    @Nullable
+    private final String ifNoneMatch;
+
+    RequestKey(String uri, Long viewerId) {
+        this(uri, viewerId, null);
+    }
+
+    boolean isUnder(String resource) {
+        if (!uri.startsWith(resource)) {
+            return false;
+        }
+        if (uri.length() == resource.length()) {
+            return true;
+        }
+        char next = uri.charAt(resource.length());
+        return next == '/' || next == '?';
+    }
+}
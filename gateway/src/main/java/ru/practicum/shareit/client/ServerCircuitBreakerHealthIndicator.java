@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reports the gateway as down while the circuit breaker of any endpoint group is open.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    private final ServerCircuitBreakers circuitBreakers;
+
+    @Override
+    public Health health() {
+        Map<EndpointGroup, CircuitBreaker.State> states = circuitBreakers.states();
+        Health.Builder health = states.containsValue(CircuitBreaker.State.OPEN) ? Health.down() : Health.up();
+        states.forEach((group, state) -> health.withDetail(group.name().toLowerCase(Locale.ROOT),
+                state.name().toLowerCase(Locale.ROOT)));
+        return health.build();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Circuit breakers of server calls, one per endpoint group.
+ * A call of a group whose breaker is open fails fast with {@link ServerUnavailableException};
+ * any other call reports its outcome back to the breaker. Server errors and I/O failures count as failures;
+ * client errors do not. Only GETs get the group's adaptive timeout and feed its latency estimate: a write may
+ * have been applied by the server even if its answer came late, so writes get the group's fixed timeout
+ * and their timeouts are not counted as failures. A streamed answer is judged by its head; the timeout then
+ * keeps applying to pauses while its body is relayed.
+ */
+@Component
+@Slf4j
+public class ServerCircuitBreakers {
+
+    private final Map<EndpointGroup, CircuitBreaker> breakers = new EnumMap<>(EndpointGroup.class);
+
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+
+    private final CircuitBreakerProperties properties;
+
+    public ServerCircuitBreakers(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String tag = group.name().toLowerCase(Locale.ROOT);
+            CircuitBreaker breaker = new CircuitBreaker(properties, properties.maxTimeout(group), state -> {
+                log.warn("circuit breaker of {} calls is {}", tag, state);
+                Counter.builder("shareit.gateway.breaker.transitions")
+                        .description("circuit breaker state transitions")
+                        .tag("group", tag)
+                        .tag("state", state.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry)
+                        .increment();
+            });
+            breakers.put(group, breaker);
+            rejections.put(group, Counter.builder("shareit.gateway.breaker.rejected")
+                    .description("server calls failed fast by an open circuit breaker")
+                    .tag("group", tag)
+                    .register(meterRegistry));
+            Gauge.builder("shareit.gateway.breaker.state", breaker, value -> value.state().ordinal())
+                    .description("circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.breaker.timeout", breaker, value -> value.timeout().toMillis() / 1000.0)
+                    .description("adaptive timeout of server GETs")
+                    .baseUnit("seconds")
+                    .tag("group", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> call(
+            EndpointGroup group, HttpMethod method,
+            Function<Duration, CompletableFuture<ResponseEntity<T>>> request) {
+        CircuitBreaker breaker = breakers.get(group);
+        long start = System.nanoTime();
+        long permit = breaker.tryAcquire(start);
+        if (permit == CircuitBreaker.REJECTED) {
+            rejections.get(group).increment();
+            long retryAfter = TimeUnit.NANOSECONDS.toSeconds(breaker.retryAfterNanos(start)) + 1;
+            return CompletableFuture.failedFuture(
+                    new ServerUnavailableException("server is unavailable, try again later", retryAfter));
+        }
+        boolean idempotent = method == HttpMethod.GET;
+        CompletableFuture<ResponseEntity<T>> sent;
+        try {
+            sent = request.apply(idempotent ? breaker.timeout() : properties.maxTimeout(group));
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.whenComplete((response, e) -> {
+            long end = System.nanoTime();
+            if (e == null) {
+                breaker.onResult(permit, end, end - start, response.getStatusCode().is5xxServerError(), idempotent);
+            } else if (!isTimeout(e)) {
+                breaker.onResult(permit, end, end - start, true, false);
+            } else if (idempotent) {
+                breaker.onResult(permit, end, end - start, true, true);
+            } else {
+                breaker.onIgnored(permit);
+            }
+        });
+    }
+
+    Map<EndpointGroup, CircuitBreaker.State> states() {
+        Map<EndpointGroup, CircuitBreaker.State> states = new EnumMap<>(EndpointGroup.class);
+        breakers.forEach((group, breaker) -> states.put(group, breaker.state()));
+        return Collections.unmodifiableMap(states);
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof SocketTimeoutException || cause instanceof TimeoutException;
+    }
+}
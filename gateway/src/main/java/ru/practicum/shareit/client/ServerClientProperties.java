@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Connection pool, timeout and wire format settings of the HTTP client the gateway uses to reach the server.
+ */
+@Component
+@ConfigurationProperties(prefix = "shareit-server.client")
+@Getter
+@Setter
+public class ServerClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration leaseTimeout = Duration.ofSeconds(1);
+
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    private Duration keepAlive = Duration.ofSeconds(15);
+
+    private Duration idleEviction = Duration.ofSeconds(10);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    private Duration coalescingTimeout = Duration.ofSeconds(10);
+
+    private WireFormat wireFormat = WireFormat.SMILE;
+
+    private int streamMaxTotal = 20;
+
+    private Duration streamTimeout = Duration.ofMinutes(1);
+
+    public enum WireFormat {
+        JSON,
+        SMILE
+    }
+}
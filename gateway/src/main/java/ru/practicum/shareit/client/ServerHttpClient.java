@@ -0,0 +1,250 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking HTTP client shared by all gateway clients over one pooled, metered set of keep-alive connections.
+ * Requests are executed on the client's I/O reactor, so the calling servlet thread is released
+ * as soon as the request is handed over and the returned future completes when the server answers.
+ * Response bodies are passed through as raw bytes with the server's content type, ETag and paging link,
+ * so the gateway never parses and re-serializes payloads it does not inspect; a 304 answer to a forwarded
+ * If-None-Match is passed through with its ETag.
+ * With the Smile wire format request bodies are encoded as Smile and Smile answers are preferred;
+ * turning them back into JSON is left to the edge, see {@link SmileResponseAdvice}. The bytes a caller gets
+ * may then differ from the ones the server tagged, so ETags are passed on as weak ones.
+ * List answers, whose size grows with the page, are not buffered at all: {@link #stream} relays their bytes
+ * to the caller while they arrive, in the format the caller asked for, see {@link StreamingResponseConsumer}.
+ */
+@Component
+@Slf4j
+public class ServerHttpClient {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper objectMapper;
+
+    private final ContentType bodyType;
+
+    private final String accept;
+
+    private final boolean weakETags;
+
+    private final CloseableHttpAsyncClient httpClient;
+
+    private final RequestConfig requestConfig;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer encoding;
+
+    public ServerHttpClient(Jackson2ObjectMapperBuilder objectMapperBuilder, ServerClientProperties properties,
+                            MeterRegistry meterRegistry) {
+        if (properties.getWireFormat() == ServerClientProperties.WireFormat.SMILE) {
+            this.objectMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+            this.bodyType = ContentType.create(SMILE);
+            this.accept = SMILE + ", application/json;q=0.9";
+            this.weakETags = true;
+        } else {
+            this.objectMapper = objectMapperBuilder.build();
+            this.bodyType = ContentType.APPLICATION_JSON;
+            this.accept = ContentType.APPLICATION_JSON.getMimeType();
+            this.weakETags = false;
+        }
+        this.meterRegistry = meterRegistry;
+        this.encoding = Timer.builder("shareit.gateway.wire.encode")
+                .description("time spent serializing request bodies sent to the server")
+                .tag("format", bodyType.getMimeType())
+                .register(meterRegistry);
+        PoolingAsyncClientConnectionManager pool = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setConnectionTimeToLive(timeValue(properties.getTimeToLive()))
+                .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                .build();
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                .setConnectionRequestTimeout(timeout(properties.getLeaseTimeout()))
+                .setResponseTimeout(timeout(properties.getResponseTimeout()))
+                .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                .build();
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(new MeteredConnectionManager(pool, meterRegistry))
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                .build();
+        this.httpClient.start();
+        log.info("server client pool: max total {}, max per route {}, wire format {}", properties.getMaxTotal(),
+                properties.getMaxPerRoute(), properties.getWireFormat());
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body, Duration responseTimeout) {
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.create(method.name())
+                .setUri(uri)
+                .setRequestConfig(RequestConfig.copy(requestConfig)
+                        .setResponseTimeout(timeout(responseTimeout))
+                        .build());
+        headers.forEach((name, values) -> values.forEach(value -> requestBuilder.addHeader(name, value)));
+        requestBuilder.setHeader(HttpHeaders.ACCEPT, accept);
+        if (body != null) {
+            long start = System.nanoTime();
+            try {
+                byte[] bytes = objectMapper.writeValueAsBytes(body);
+                encoding.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                record("request", bodyType, bytes.length);
+                requestBuilder.setBody(bytes, bodyType);
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        SimpleHttpRequest request = requestBuilder.build();
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                log.debug("request {} {} answered with {}", method, uri, response.getCode());
+                result.complete(toResponseEntity(response));
+            }
+
+            @Override
+            public void failed(Exception e) {
+                log.warn("request {} {} failed: {}", method, uri, e.getMessage());
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(HttpMethod method, URI uri,
+                                                                           HttpHeaders headers,
+                                                                           Duration responseTimeout) {
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.create(method.name())
+                .setUri(uri)
+                .setRequestConfig(RequestConfig.copy(requestConfig)
+                        .setResponseTimeout(timeout(responseTimeout))
+                        .build());
+        headers.forEach((name, values) -> values.forEach(value -> requestBuilder.addHeader(name, value)));
+        StreamingResponseConsumer consumer = new StreamingResponseConsumer(response -> head(response, false),
+                (contentType, bytes) -> record("response",
+                        contentType != null ? ContentType.parse(contentType) : null, bytes));
+        CompletableFuture<ResponseEntity<StreamingResponseBody>> result = new CompletableFuture<>();
+        Future<?> exchange = httpClient.execute(SimpleRequestProducer.create(requestBuilder.build()), consumer,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(ResponseEntity<StreamingResponseBody> response) {
+                        log.debug("stream {} {} answered with {}", method, uri, response.getStatusCodeValue());
+                        result.complete(response);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        log.warn("stream {} {} failed: {}", method, uri, e.getMessage());
+                        result.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+        consumer.bind(exchange);
+        return result;
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private ResponseEntity<Object> toResponseEntity(SimpleHttpResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = head(response, weakETags);
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
+        }
+        ContentType contentType = response.getContentType();
+        if (contentType != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_TYPE, contentType.toString());
+        }
+        record("response", contentType, body.length);
+        return responseBuilder.body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder head(HttpResponse response, boolean weakETag) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getCode());
+        Header eTag = response.getFirstHeader(HttpHeaders.ETAG);
+        if (eTag != null) {
+            responseBuilder.eTag(weakETag ? weak(eTag.getValue()) : eTag.getValue());
+            responseBuilder.varyBy(HttpHeaders.ACCEPT);
+        }
+        Header link = response.getFirstHeader(HttpHeaders.LINK);
+        if (link != null) {
+            responseBuilder.header(HttpHeaders.LINK, link.getValue());
+        }
+        return responseBuilder;
+    }
+
+    private static String weak(String eTag) {
+        return eTag.startsWith("W/") ? eTag : "W/" + eTag;
+    }
+
+    private void record(String direction, @Nullable ContentType contentType, long bytes) {
+        DistributionSummary.builder("shareit.gateway.wire.bytes")
+                .description("body sizes exchanged with the server")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("format", contentType != null ? contentType.getMimeType() : "none")
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of successful server responses to idempotent GETs, keyed by URI and viewer.
+ * Writes drop every entry under the resources they touch. A version counter bumped by every eviction
+ * makes a response that was in flight during a write skip the cache, so it cannot outlive that write.
+ */
+@Component
+@Slf4j
+public class ServerResponseCache {
+
+    private final Cache<RequestKey, ResponseEntity<Object>> cache;
+
+    private final Counter invalidations;
+
+    private final AtomicLong version = new AtomicLong();
+
+    public ServerResponseCache(@Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                               @Value("${shareit-server.cache.ttl-seconds:30}") long ttlSeconds,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("shareit.gateway.cache.invalidations")
+                .description("cached server responses dropped by proxied writes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "serverResponses");
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(URI uri, Long viewerId,
+                                                         Supplier<CompletableFuture<ResponseEntity<Object>>> request) {
+        RequestKey key = new RequestKey(uri.toString(), viewerId);
+        ResponseEntity<Object> response = cache.getIfPresent(key);
+        if (response != null) {
+            return CompletableFuture.completedFuture(response);
+        }
+        long requestVersion = version.get();
+        return request.get().thenApply(answer -> {
+            if (answer.getStatusCode().is2xxSuccessful()) {
+                cache.put(key, answer);
+                if (version.get() != requestVersion) {
+                    cache.invalidate(key);
+                }
+            }
+            return answer;
+        });
+    }
+
+    public void evict(String... resources) {
+        version.incrementAndGet();
+        int dropped = 0;
+        for (RequestKey key : cache.asMap().keySet()) {
+            for (String resource : resources) {
+                if (key.isUnder(resource)) {
+                    cache.invalidate(key);
+                    dropped++;
+                    break;
+                }
+            }
+        }
+        invalidations.increment(dropped);
+        log.debug("response cache: {} entries dropped under {}", dropped, resources);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Blocking HTTP client for the few calls whose bodies are too large to hold in memory, such as uploads and exports.
+ * The request body is copied from the caller's stream while it is sent and the answer is handed back
+ * as a {@link StreamingResponseBody} that copies the server's stream to the caller, so neither side is buffered.
+ * It keeps its own small connection pool, so long transfers never hold connections of {@link ServerHttpClient},
+ * and it bypasses the response cache, request coalescing and circuit breakers.
+ */
+@Component
+@Slf4j
+public class ServerStreamClient {
+
+    private final CloseableHttpClient httpClient;
+
+    public ServerStreamClient(ServerClientProperties properties) {
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getStreamMaxTotal())
+                        .setMaxConnPerRoute(properties.getStreamMaxTotal())
+                        .setConnectionTimeToLive(timeValue(properties.getTimeToLive()))
+                        .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                        .setConnectionRequestTimeout(timeout(properties.getLeaseTimeout()))
+                        .setResponseTimeout(timeout(properties.getStreamTimeout()))
+                        .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                .build();
+        log.info("server stream client pool: max total {}, response timeout {}", properties.getStreamMaxTotal(),
+                properties.getStreamTimeout());
+    }
+
+    public ResponseEntity<StreamingResponseBody> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                          @Nullable InputStream body, @Nullable String contentType)
+            throws IOException {
+        ClassicRequestBuilder requestBuilder = ClassicRequestBuilder.create(method.name())
+                .setUri(uri);
+        headers.forEach((name, values) -> values.forEach(value -> requestBuilder.addHeader(name, value)));
+        if (body != null) {
+            requestBuilder.setEntity(new InputStreamEntity(body, -1,
+                    contentType != null ? ContentType.parse(contentType) : null));
+        }
+        ClassicHttpRequest request = requestBuilder.build();
+        CloseableHttpResponse response = httpClient.execute(request);
+        log.debug("stream {} {} answered with {}", method, uri, response.getCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getCode());
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            response.close();
+            return responseBuilder.build();
+        }
+        if (entity.getContentType() != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_TYPE, entity.getContentType());
+        }
+        Header contentDisposition = response.getFirstHeader(HttpHeaders.CONTENT_DISPOSITION);
+        if (contentDisposition != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.getValue());
+        }
+        return responseBuilder.body(out -> {
+            try (response; InputStream in = entity.getContent()) {
+                in.transferTo(out);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
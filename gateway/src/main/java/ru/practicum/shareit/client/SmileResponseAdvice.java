@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Turns Smile answers of the server back into JSON at the edge.
+ * The Smile bytes are passed through untouched when the caller explicitly accepts Smile,
+ * so JSON stays the default for external clients while the internal hop stays binary.
+ * The conversion copies tokens from a Smile parser to a JSON generator without building a tree.
+ */
+@ControllerAdvice
+@Slf4j
+public class SmileResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    private final JsonFactory jsonFactory;
+
+    private final Timer transcoding;
+
+    public SmileResponseAdvice(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.transcoding = Timer.builder("shareit.gateway.wire.transcode")
+                .description("time spent converting server answers from Smile to JSON")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof byte[]) || !SMILE.includes(selectedContentType) || acceptsSmile(request)) {
+            return body;
+        }
+        byte[] json = transcoding.record(() -> toJson((byte[]) body));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return json;
+    }
+
+    private static boolean acceptsSmile(ServerHttpRequest request) {
+        for (MediaType accepted : request.getHeaders().getAccept()) {
+            if (!accepted.isWildcardType() && !accepted.isWildcardSubtype() && accepted.includes(SMILE)
+                    && accepted.getQualityValue() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] toJson(byte[] smile) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = smileFactory.createParser(smile);
+             JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("unreadable smile answer of the server", e);
+        }
+        return json.toByteArray();
+    }
+}
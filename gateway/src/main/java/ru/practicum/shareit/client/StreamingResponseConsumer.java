@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hands a server answer over as soon as its head arrives and relays the body while it is still being received.
+ * The body passes through a small shared buffer that grants the connection more capacity only as the caller
+ * drains it, so a slow caller slows the server connection down instead of growing the gateway's heap.
+ * A body broken off by the server, or a caller that goes away, fails the relay and cancels the exchange.
+ */
+final class StreamingResponseConsumer implements AsyncResponseConsumer<ResponseEntity<StreamingResponseBody>> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SharedInputBuffer buffer = new SharedInputBuffer(BUFFER_SIZE);
+
+    private final Function<HttpResponse, ResponseEntity.BodyBuilder> head;
+
+    private final ObjLongConsumer<String> relayed;
+
+    private volatile Exception failure;
+
+    private volatile Future<?> exchange;
+
+    private volatile String contentType;
+
+    StreamingResponseConsumer(Function<HttpResponse, ResponseEntity.BodyBuilder> head,
+                              ObjLongConsumer<String> relayed) {
+        this.head = head;
+        this.relayed = relayed;
+    }
+
+    void bind(Future<?> exchange) {
+        this.exchange = exchange;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<ResponseEntity<StreamingResponseBody>> resultCallback) {
+        ResponseEntity.BodyBuilder responseBuilder = head.apply(response);
+        if (entityDetails == null) {
+            resultCallback.completed(responseBuilder.build());
+            return;
+        }
+        contentType = entityDetails.getContentType();
+        if (contentType != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+        resultCallback.completed(responseBuilder.body(this::relay));
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        buffer.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) {
+        buffer.fill(src);
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+        buffer.markEndStream();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        failure = cause;
+        buffer.abort();
+    }
+
+    @Override
+    public void releaseResources() {
+    }
+
+    private void relay(OutputStream out) throws IOException {
+        long bytes = 0;
+        try {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = buffer.read(chunk, 0, chunk.length)) != -1) {
+                out.write(chunk, 0, read);
+                bytes += read;
+            }
+            if (failure != null) {
+                throw new IOException("server answer broken off", failure);
+            }
+        } catch (IOException | RuntimeException e) {
+            buffer.abort();
+            Future<?> bound = exchange;
+            if (bound != null) {
+                bound.cancel(true);
+            }
+            throw e;
+        } finally {
+            relayed.accept(contentType, bytes);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestControllerAdvice
 public class ShareItGatewayExceptionHandler {
@@ -15,4 +21,29 @@ public class ShareItGatewayExceptionHandler {
     public Map<String, String> handleBookingStateException(final StateException e) {
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleConstraintViolationException(final ConstraintViolationException e) {
+        return Map.of("error", e.getMessage());
+    }
+
+    @ExceptionHandler({TimeoutException.class, SocketTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> handleTimeoutException(final Exception e) {
+        return Map.of("error", "server did not answer in time");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public Map<String, String> handleServerIOException(final IOException e) {
+        return Map.of("error", "server is unreachable");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleServerUnavailableException(final ServerUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
 }
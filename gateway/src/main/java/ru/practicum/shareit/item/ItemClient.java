@@ -2,54 +2,97 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCircuitBreakers;
+import ru.practicum.shareit.client.ServerHttpClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerStreamClient;
 import ru.practicum.shareit.item.dto.CommentIncDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerHttpClient client,
+                      ServerStreamClient streamClient, ServerResponseCache responseCache,
+                      InFlightRequests inFlightRequests, ServerCircuitBreakers circuitBreakers) {
+        super(client, streamClient, responseCache, inFlightRequests, circuitBreakers, serverUrl, API_PREFIX);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, ItemDto itemDto) {
+        return evicting(post("", userId, itemDto), API_PREFIX + "/search", "/requests");
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<StreamingResponseBody> bulkCreate(Long userId, String contentType, InputStream body)
+            throws IOException {
+        ResponseEntity<StreamingResponseBody> response;
+        try {
+            response = stream(HttpMethod.POST, "/bulk", userId, null, body, contentType, NDJSON);
+        } catch (IOException | RuntimeException e) {
+            evict(API_PREFIX + "/search", "/requests");
+            throw e;
+        }
+        return evicting(response, API_PREFIX + "/search", "/requests");
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> update(Long userId, Long itemId, ItemDto itemDto) {
+        return evicting(patch("/" + itemId, userId, itemDto), API_PREFIX + "/" + itemId, API_PREFIX + "/search",
+                "/requests");
     }
 
-    public ResponseEntity<Object> getUsersItems(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUsersItems(Long userId, Integer from,
+                                                                                  Integer size) {
         Map<String, Object> parameters = Map.of("from", from,
                 "size", size);
-        return get("?from={from}&size={size}", userId, parameters);
+        return streamedGet("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> findById(Long userId, Long itemId) {
+        return cachedGet("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchByText(String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findAllById(Long userId, List<Long> ids) {
+        Map<String, Object> parameters = Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids));
+        return get("?ids={ids}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from,
+                "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> searchByText(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("text", text,
                 "from", from,
                 "size", size);
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return cachedGet("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> suggest(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix,
+                "size", size);
+        return get("/search/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> comment(Long userId, Long itemId, CommentIncDto commentIncDto) {
-        return post("/" + itemId + "/comment", userId, commentIncDto);
+    public CompletableFuture<ResponseEntity<Object>> comment(Long userId, Long itemId, CommentIncDto commentIncDto) {
+        return evicting(post("/" + itemId + "/comment", userId, commentIncDto), API_PREFIX + "/" + itemId);
     }
 }
@@ -3,15 +3,26 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentIncDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -25,43 +36,71 @@ public class ItemController {
     private static final String USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID) Long userId, @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(USER_ID) Long userId, @Valid @RequestBody ItemDto itemDto) {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> bulkCreate(@RequestHeader(USER_ID) Long userId,
+                                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                            InputStream body) throws IOException {
+        return itemClient.bulkCreate(userId, contentType, body);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader(USER_ID) Long userId,
-                                         @PathVariable long itemId, @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(USER_ID) Long userId,
+                                                            @PathVariable long itemId, @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersItems(@RequestHeader(USER_ID) Long userId,
-                                                @RequestParam(defaultValue = "0", required = false)
-                                                @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10", required = false)
-                                                @Positive Integer size) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUsersItems(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(defaultValue = "0", required = false) @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10", required = false) @Positive Integer size) {
         return itemClient.getUsersItems(userId, from, size);
     }
 
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<Object>> findAllById(@RequestHeader(value = USER_ID, required = false) Long userId,
+                                                                 @RequestParam @NotEmpty @Size(max = 200) List<Long> ids) {
+        return itemClient.findAllById(userId, ids);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findById(@RequestHeader(value = USER_ID, required = false) Long userId,
-                                           @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> findById(@RequestHeader(value = USER_ID, required = false) Long userId,
+                                                              @PathVariable Long itemId) {
         return itemClient.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(@PathVariable Long itemId,
+                                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                     LocalDateTime from,
+                                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                     LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchByText(@RequestParam String text,
-                                               @RequestParam(defaultValue = "0", required = false)
-                                               @PositiveOrZero Integer from,
-                                               @RequestParam(defaultValue = "10", required = false)
-                                               @Positive Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchByText(@RequestParam String text,
+                                                                  @RequestParam(defaultValue = "0", required = false)
+                                                                  @PositiveOrZero Integer from,
+                                                                  @RequestParam(defaultValue = "10", required = false)
+                                                                  @Positive Integer size) {
         return itemClient.searchByText(text, from, size);
     }
 
+    @GetMapping("/search/suggest")
+    public CompletableFuture<ResponseEntity<Object>> suggest(@RequestParam String prefix,
+                                                             @RequestParam(defaultValue = "10", required = false)
+                                                             @Positive @Max(20) Integer size) {
+        return itemClient.suggest(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> comment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
-                                          @Valid @RequestBody CommentIncDto commentIncDto) {
+    public CompletableFuture<ResponseEntity<Object>> comment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
+                                                             @Valid @RequestBody CommentIncDto commentIncDto) {
         return itemClient.comment(userId, itemId, commentIncDto);
     }
 }
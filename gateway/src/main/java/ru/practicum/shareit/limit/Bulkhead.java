@@ -0,0 +1,37 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free cap on the number of requests of one endpoint group that are being served at the same time.
+ */
+class Bulkhead {
+
+    private final int maxConcurrent;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    Bulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    boolean tryEnter() {
+        while (true) {
+            int current = active.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void leave() {
+        active.decrementAndGet();
+    }
+
+    int active() {
+        return active.get();
+    }
+}
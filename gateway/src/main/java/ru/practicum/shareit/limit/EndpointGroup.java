@@ -0,0 +1,25 @@
+package ru.practicum.shareit.limit;
+
+import java.util.Optional;
+
+public enum EndpointGroup {
+    ITEMS("/items"),
+    BOOKINGS("/bookings"),
+    REQUESTS("/requests"),
+    USERS("/users");
+
+    private final String prefix;
+
+    EndpointGroup(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public static Optional<EndpointGroup> of(String path) {
+        for (EndpointGroup group : values()) {
+            if (path.equals(group.prefix) || path.startsWith(group.prefix + "/")) {
+                return Optional.of(group);
+            }
+        }
+        return Optional.empty();
+    }
+}
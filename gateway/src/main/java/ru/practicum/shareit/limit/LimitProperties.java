@@ -0,0 +1,39 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per endpoint group request rate and concurrency limits of the gateway.
+ */
+@Component
+@ConfigurationProperties(prefix = "shareit.gateway.limits")
+@Getter
+@Setter
+public class LimitProperties {
+
+    private Duration idleBucketExpiry = Duration.ofMinutes(10);
+
+    private Map<EndpointGroup, Group> groups = new EnumMap<>(EndpointGroup.class);
+
+    public Group get(EndpointGroup group) {
+        return groups.getOrDefault(group, new Group());
+    }
+
+    @Getter
+    @Setter
+    public static class Group {
+
+        private int burst = 50;
+
+        private double ratePerSecond = 20;
+
+        private int maxConcurrent = 50;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits a request only if its user still has a token in the bucket of the endpoint group
+ * and the group's bulkhead has a free slot. Users are told apart by {@code X-Sharer-User-Id},
+ * anonymous requests by the client address. A slot is held until the asynchronous response completes.
+ * Either rejection answers 429 with Retry-After, since both mean the caller should back off and retry.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private final LimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    private final Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimitFilter(LimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(LimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleBucketExpiry())
+                .build();
+        for (EndpointGroup group : EndpointGroup.values()) {
+            Bulkhead bulkhead = new Bulkhead(properties.get(group).getMaxConcurrent());
+            bulkheads.put(group, bulkhead);
+            Gauge.builder("shareit.gateway.bulkhead.active", bulkhead, Bulkhead::active)
+                    .description("requests being served per endpoint group")
+                    .tag("group", group.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<EndpointGroup> matched = EndpointGroup.of(request.getRequestURI());
+        if (matched.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        EndpointGroup group = matched.get();
+        LimitProperties.Group limits = properties.get(group);
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(new BucketKey(group, client(request)),
+                key -> new TokenBucket(limits.getBurst(), limits.getRatePerSecond(), now));
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            reject(response, group, "rate", TimeUnit.NANOSECONDS.toSeconds(wait) + 1, "too many requests");
+            return;
+        }
+        Bulkhead bulkhead = bulkheads.get(group);
+        if (!bulkhead.tryEnter()) {
+            reject(response, group, "bulkhead", 1, "too many concurrent requests");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LeavingListener(bulkhead));
+            } else {
+                bulkhead.leave();
+            }
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID);
+        return userId != null ? userId : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, EndpointGroup group, String reason, long retryAfterSeconds,
+                        String message) throws IOException {
+        Counter.builder("shareit.gateway.limit.rejected")
+                .description("requests rejected by rate limits and bulkheads")
+                .tag("group", group.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("{} request rejected by {} limit", group, reason);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class BucketKey {
+
+        private final EndpointGroup group;
+
+        private final String client;
+    }
+
+    @RequiredArgsConstructor
+    private static final class LeavingListener implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.leave();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single virtual time: the moment the bucket would be full again.
+ * Taking a token moves that moment one refill interval ahead; a request is admitted while the moment
+ * stays within one full bucket of the current time, so every decision is a single compare-and-set.
+ */
+class TokenBucket {
+
+    private final long refillNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(int burst, double ratePerSecond, long now) {
+        this.refillNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.capacityNanos = refillNanos * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if the token was taken, otherwise nanoseconds until one becomes available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
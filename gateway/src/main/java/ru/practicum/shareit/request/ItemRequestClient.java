@@ -2,42 +2,46 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCircuitBreakers;
+import ru.practicum.shareit.client.ServerHttpClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerStreamClient;
 import ru.practicum.shareit.request.dto.ItemRequestIncDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, ServerHttpClient client,
+                             ServerStreamClient streamClient, ServerResponseCache responseCache,
+                             InFlightRequests inFlightRequests, ServerCircuitBreakers circuitBreakers) {
+        super(client, streamClient, responseCache, inFlightRequests, circuitBreakers, serverUrl, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemRequestIncDto itemRequestIncDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, ItemRequestIncDto itemRequestIncDto) {
         return post("", userId, itemRequestIncDto);
     }
 
-    public ResponseEntity<Object> get(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> get(Long userId) {
+        return streamedGet("", userId, null);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getAll(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from,
                 "size", size);
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return streamedGet("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getById(Long userId, Long requestId) {
+        return cachedGet("/" + requestId, userId);
     }
 }
@@ -6,11 +6,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.ItemRequestIncDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -24,28 +26,30 @@ public class ItemRequestController {
     private static final String USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID) Long userId,
-                                         @Valid @RequestBody ItemRequestIncDto itemRequestIncDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(USER_ID) Long userId,
+                                                            @Valid @RequestBody ItemRequestIncDto itemRequestIncDto) {
         log.info("start creating item request");
         return itemRequestClient.create(userId, itemRequestIncDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> get(@RequestHeader(USER_ID) Long userId) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> get(@RequestHeader(USER_ID) Long userId) {
         log.info("getting requests by user {}", userId);
         return itemRequestClient.get(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> get(@RequestHeader(USER_ID) Long userId,
-                                      @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                      @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> get(@RequestHeader(USER_ID) Long userId,
+                                                                        @RequestParam(defaultValue = "0")
+                                                                        @PositiveOrZero Integer from,
+                                                                        @RequestParam(defaultValue = "10")
+                                                                        @Positive Integer size) {
         log.info("getting all item requests");
         return itemRequestClient.getAll(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID) Long userId, @PathVariable Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@RequestHeader(USER_ID) Long userId, @PathVariable Long requestId) {
         log.info("getting request {}", requestId);
         return itemRequestClient.getById(userId, requestId);
     }
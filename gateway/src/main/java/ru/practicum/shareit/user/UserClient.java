@@ -2,42 +2,55 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCircuitBreakers;
+import ru.practicum.shareit.client.ServerHttpClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerStreamClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ServerHttpClient client,
+                      ServerStreamClient streamClient, ServerResponseCache responseCache,
+                      InFlightRequests inFlightRequests, ServerCircuitBreakers circuitBreakers) {
+        super(client, streamClient, responseCache, inFlightRequests, circuitBreakers, serverUrl, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(Long id, UserDto userDto) {
-        return patch("/" + id, userDto);
+    public CompletableFuture<ResponseEntity<Object>> update(Long id, UserDto userDto) {
+        return evicting(patch("/" + id, userDto), API_PREFIX + "/" + id, "/items");
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> delete(Long id) {
+        return evicting(delete("/" + id), API_PREFIX + "/" + id, "/items", "/requests");
     }
 
-    public ResponseEntity<Object> delete(Long id) {
-        return delete("/" + id);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getAll() {
+        return streamedGet("", null, null);
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("");
+    public CompletableFuture<ResponseEntity<Object>> findAllById(List<Long> ids) {
+        Map<String, Object> parameters = Map.of("ids", StringUtils.collectionToCommaDelimitedString(ids));
+        return get("?ids={ids}", null, parameters);
     }
 
-    public ResponseEntity<Object> findById(Long id) {
-        return get("/" + id);
+    public CompletableFuture<ResponseEntity<Object>> findById(Long id) {
+        return cachedGet("/" + id, null);
     }
 }
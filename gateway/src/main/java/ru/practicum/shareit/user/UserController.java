@@ -6,9 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -20,31 +25,37 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         log.info("start creating user {}", userDto.getEmail());
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id, @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable Long id, @RequestBody UserDto userDto) {
         log.info("start updating info user {}", id);
         return userClient.update(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable Long id) {
         log.info("start removing user {}", id);
         return userClient.delete(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getAll() {
         log.info("start getting all users");
         return userClient.getAll();
     }
 
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<Object>> findAllById(@RequestParam @NotEmpty @Size(max = 200) List<Long> ids) {
+        log.info("start getting users {}", ids);
+        return userClient.findAllById(ids);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getByID(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getByID(@PathVariable Long id) {
         log.info("start getting user {}", id);
         return userClient.findById(id);
     }
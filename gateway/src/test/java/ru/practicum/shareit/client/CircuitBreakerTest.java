@@ -0,0 +1,185 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static ru.practicum.shareit.client.CircuitBreaker.REJECTED;
+import static ru.practicum.shareit.client.CircuitBreaker.State.CLOSED;
+import static ru.practicum.shareit.client.CircuitBreaker.State.HALF_OPEN;
+import static ru.practicum.shareit.client.CircuitBreaker.State.OPEN;
+
+class CircuitBreakerTest {
+
+    private static final long START = TimeUnit.HOURS.toNanos(1);
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+
+    private CircuitBreakerProperties properties;
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void prepare() {
+        properties = new CircuitBreakerProperties();
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setWindowBuckets(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallDuration(Duration.ofSeconds(2));
+        properties.setSlowCallRateThreshold(80);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        properties.setMinTimeout(Duration.ofMillis(500));
+        breaker = new CircuitBreaker(properties, Duration.ofSeconds(5), transitions::add);
+    }
+
+    @Test
+    void onResultTestOpensWhenFailureRateReachesThreshold() {
+        call(START, false);
+        call(START, true);
+        call(START, false);
+        assertEquals(CLOSED, breaker.state());
+
+        call(START + SECOND, true);
+
+        assertEquals(OPEN, breaker.state());
+        assertEquals(REJECTED, breaker.tryAcquire(START + 2 * SECOND));
+        assertEquals(9 * SECOND, breaker.retryAfterNanos(START + 2 * SECOND));
+    }
+
+    @Test
+    void onResultTestForgetsFailuresOutsideWindow() {
+        call(START, true);
+        call(START, true);
+        call(START, false);
+
+        call(START + 11 * SECOND, false);
+        call(START + 11 * SECOND, true);
+
+        assertEquals(CLOSED, breaker.state());
+    }
+
+    @Test
+    void onResultTestOpensWhenSlowCallRateReachesThreshold() {
+        for (int i = 0; i < 4; i++) {
+            long permit = breaker.tryAcquire(START);
+            breaker.onResult(permit, START + 3 * SECOND, 3 * SECOND, false, true);
+        }
+
+        assertEquals(OPEN, breaker.state());
+    }
+
+    @Test
+    void tryAcquireTestClosesAfterAllProbesSucceed() {
+        trip();
+
+        long first = breaker.tryAcquire(START + 11 * SECOND);
+        long second = breaker.tryAcquire(START + 11 * SECOND);
+        assertEquals(HALF_OPEN, breaker.state());
+        assertNotEquals(REJECTED, first);
+        assertNotEquals(REJECTED, second);
+        assertEquals(REJECTED, breaker.tryAcquire(START + 11 * SECOND));
+
+        breaker.onResult(first, START + 12 * SECOND, 10 * MILLIS, false, true);
+        assertEquals(HALF_OPEN, breaker.state());
+        breaker.onResult(second, START + 12 * SECOND, 10 * MILLIS, false, true);
+
+        assertEquals(CLOSED, breaker.state());
+        assertEquals(List.of(OPEN, HALF_OPEN, CLOSED), transitions);
+        call(START + 12 * SECOND, true);
+        assertEquals(CLOSED, breaker.state());
+    }
+
+    @Test
+    void tryAcquireTestReopensWhenProbeFails() {
+        trip();
+
+        long probe = breaker.tryAcquire(START + 11 * SECOND);
+        breaker.onResult(probe, START + 12 * SECOND, 10 * MILLIS, true, true);
+
+        assertEquals(OPEN, breaker.state());
+        assertEquals(List.of(OPEN, HALF_OPEN, OPEN), transitions);
+        assertEquals(REJECTED, breaker.tryAcquire(START + 13 * SECOND));
+        assertNotEquals(REJECTED, breaker.tryAcquire(START + 22 * SECOND));
+    }
+
+    @Test
+    void onResultTestIgnoresCallsAdmittedBeforeStateChange() {
+        long admittedWhileClosed = breaker.tryAcquire(START);
+        trip();
+        long probe = breaker.tryAcquire(START + 11 * SECOND);
+
+        breaker.onResult(admittedWhileClosed, START + 11 * SECOND, 11 * SECOND, false, false);
+        assertEquals(HALF_OPEN, breaker.state());
+        breaker.onResult(admittedWhileClosed, START + 11 * SECOND, 11 * SECOND, true, false);
+        assertEquals(HALF_OPEN, breaker.state());
+
+        breaker.onResult(probe, START + 12 * SECOND, 10 * MILLIS, false, true);
+        assertEquals(HALF_OPEN, breaker.state());
+        assertEquals(List.of(OPEN, HALF_OPEN), transitions);
+    }
+
+    @Test
+    void onIgnoredTestFreesProbeSlot() {
+        trip();
+        long first = breaker.tryAcquire(START + 11 * SECOND);
+        breaker.tryAcquire(START + 11 * SECOND);
+        assertEquals(REJECTED, breaker.tryAcquire(START + 11 * SECOND));
+
+        breaker.onIgnored(first);
+
+        assertNotEquals(REJECTED, breaker.tryAcquire(START + 11 * SECOND));
+        assertEquals(HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    void timeoutTestFollowsMeasuredLatencyWithinBounds() {
+        assertEquals(Duration.ofSeconds(5), breaker.timeout());
+
+        call(START, SECOND, false, true);
+        assertEquals(Duration.ofSeconds(3), breaker.timeout());
+
+        call(START, SECOND, false, true);
+        assertEquals(Duration.ofMillis(2500), breaker.timeout());
+
+        call(START, 20 * SECOND, true, false);
+        assertEquals(Duration.ofMillis(2500), breaker.timeout());
+
+        call(START, 20 * SECOND, false, true);
+        assertEquals(Duration.ofSeconds(5), breaker.timeout());
+    }
+
+    @Test
+    void timeoutTestIsNotShorterThanMinimum() {
+        call(START, 100 * MILLIS, false, true);
+
+        assertEquals(Duration.ofMillis(500), breaker.timeout());
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            call(START, true);
+        }
+        assertEquals(OPEN, breaker.state());
+    }
+
+    private void call(long now, boolean failure) {
+        call(now, 10 * MILLIS, failure, true);
+    }
+
+    private void call(long now, long latency, boolean failure, boolean measured) {
+        long permit = breaker.tryAcquire(now);
+        breaker.onResult(permit, now, latency, failure, measured);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConditionalGetTest {
+
+    private static final String SERVER_URL = "http://server";
+
+    private static final URI ITEM = URI.create(SERVER_URL + "/items/5");
+
+    private static final String TAG = "W/\"0a1b2c\"";
+
+    private ServerHttpClient httpClient;
+
+    private ItemClient itemClient;
+
+    @BeforeEach
+    public void prepare() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        httpClient = Mockito.mock(ServerHttpClient.class);
+        itemClient = new ItemClient(SERVER_URL, httpClient, Mockito.mock(ServerStreamClient.class),
+                new ServerResponseCache(100, 30, meterRegistry),
+                new InFlightRequests(new ServerClientProperties(), meterRegistry),
+                new ServerCircuitBreakers(new CircuitBreakerProperties(), meterRegistry));
+    }
+
+    @AfterEach
+    public void clear() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getTestForwardsIfNoneMatchAndPassesNotModifiedThrough() throws Exception {
+        when(httpClient.exchange(any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(TAG)
+                        .build()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok()
+                        .eTag(TAG)
+                        .body((Object) "item")));
+        callerSends(TAG);
+
+        ResponseEntity<Object> revalidated = itemClient.findById(1L, 5L).get();
+        RequestContextHolder.resetRequestAttributes();
+        ResponseEntity<Object> fetched = itemClient.findById(1L, 5L).get();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertEquals(TAG, revalidated.getHeaders().getETag());
+        assertEquals("item", fetched.getBody());
+        List<HttpHeaders> sent = sentHeaders(2);
+        assertEquals(TAG, sent.get(0).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertNull(sent.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void getTestDoesNotShareConditionalCallWithOtherCallers() {
+        when(httpClient.exchange(any(), any(), any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        callerSends(TAG);
+        itemClient.findById(1L, 5L);
+        itemClient.findById(1L, 5L);
+        RequestContextHolder.resetRequestAttributes();
+        itemClient.findById(1L, 5L);
+
+        sentHeaders(2);
+    }
+
+    private void callerSends(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private List<HttpHeaders> sentHeaders(int calls) {
+        ArgumentCaptor<HttpHeaders> headers = ArgumentCaptor.forClass(HttpHeaders.class);
+        verify(httpClient, times(calls)).exchange(eq(HttpMethod.GET), eq(ITEM), headers.capture(), any(), any());
+        return headers.getAllValues();
+    }
+}
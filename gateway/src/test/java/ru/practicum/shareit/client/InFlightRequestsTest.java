@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightRequestsTest {
+
+    private static final URI ITEM = URI.create("http://server/items/1");
+
+    private MeterRegistry meterRegistry;
+
+    private InFlightRequests inFlightRequests;
+
+    private AtomicInteger requests;
+
+    private CompletableFuture<ResponseEntity<Object>> server;
+
+    @BeforeEach
+    public void prepare() {
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setCoalescingTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        inFlightRequests = new InFlightRequests(properties, meterRegistry);
+        requests = new AtomicInteger();
+        server = new CompletableFuture<>();
+    }
+
+    @Test
+    void joinTestSharesCallInFlight() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = inFlightRequests.join(ITEM, 1L, this::request);
+        CompletableFuture<ResponseEntity<Object>> second = inFlightRequests.join(ITEM, 1L, this::request);
+
+        assertEquals(1, requests.get());
+        assertFalse(first.isDone());
+        server.complete(ResponseEntity.ok("item"));
+        assertEquals("item", first.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals("item", second.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.requests.coalesced").counter().count());
+
+        inFlightRequests.join(ITEM, 1L, this::request);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void joinTestKeepsViewersApart() {
+        inFlightRequests.join(ITEM, 1L, this::request);
+        inFlightRequests.join(ITEM, 2L, this::request);
+        inFlightRequests.join(ITEM, null, this::request);
+
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void joinTestStopsWaitingAfterCoalescingTimeout() {
+        CompletableFuture<ResponseEntity<Object>> first = inFlightRequests.join(ITEM, 1L, this::request);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertFalse(server.isDone());
+    }
+
+    @Test
+    void joinTestSharesFailure() {
+        CompletableFuture<ResponseEntity<Object>> first = inFlightRequests.join(ITEM, 1L, this::request);
+        CompletableFuture<ResponseEntity<Object>> second = inFlightRequests.join(ITEM, 1L, this::request);
+
+        server.completeExceptionally(new IllegalStateException("connection reset"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        inFlightRequests.join(ITEM, 1L, this::request);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void forgetTestMakesLaterReadersIssueNewCall() {
+        URI otherItem = URI.create("http://server/items/10");
+        inFlightRequests.join(ITEM, 1L, this::request);
+        inFlightRequests.join(otherItem, 1L, this::request);
+
+        inFlightRequests.forget("http://server/items/1");
+        inFlightRequests.join(ITEM, 1L, this::request);
+        inFlightRequests.join(otherItem, 1L, this::request);
+
+        assertEquals(3, requests.get());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> request() {
+        requests.incrementAndGet();
+        return server;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+import ru.practicum.shareit.limit.EndpointGroup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerCircuitBreakersTest {
+
+    private final List<Duration> timeouts = new ArrayList<>();
+
+    private ServerCircuitBreakers circuitBreakers;
+
+    @BeforeEach
+    public void prepare() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setMinimumCalls(2);
+        properties.setFailureRateThreshold(50);
+        properties.setMinTimeout(Duration.ofMillis(1));
+        properties.getTimeouts().put(EndpointGroup.ITEMS, Duration.ofSeconds(3));
+        circuitBreakers = new ServerCircuitBreakers(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void callTestGivesWritesFixedTimeout() {
+        call(HttpMethod.GET, CompletableFuture.completedFuture(ResponseEntity.ok("item")));
+        call(HttpMethod.PATCH, CompletableFuture.completedFuture(ResponseEntity.ok("item")));
+        call(HttpMethod.POST, CompletableFuture.completedFuture(ResponseEntity.ok("item")));
+
+        assertEquals(Duration.ofSeconds(3), timeouts.get(0));
+        assertEquals(Duration.ofSeconds(3), timeouts.get(1));
+        assertEquals(Duration.ofSeconds(3), timeouts.get(2));
+        call(HttpMethod.GET, CompletableFuture.completedFuture(ResponseEntity.ok("item")));
+        assertTrue(timeouts.get(3).compareTo(Duration.ofSeconds(3)) < 0);
+    }
+
+    @Test
+    void callTestDoesNotCountWriteTimeoutsAsFailures() {
+        for (int i = 0; i < 5; i++) {
+            call(HttpMethod.POST, CompletableFuture.failedFuture(new TimeoutException()));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.states().get(EndpointGroup.ITEMS));
+
+        call(HttpMethod.GET, CompletableFuture.failedFuture(new TimeoutException()));
+        call(HttpMethod.GET, CompletableFuture.failedFuture(new TimeoutException()));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.states().get(EndpointGroup.ITEMS));
+    }
+
+    @Test
+    void callTestFailsFastWhileOpen() {
+        call(HttpMethod.POST, CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build()));
+        call(HttpMethod.POST, CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build()));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> call(HttpMethod.GET, CompletableFuture.completedFuture(ResponseEntity.ok("item"))).get());
+        assertInstanceOf(ServerUnavailableException.class, e.getCause());
+        assertEquals(2, timeouts.size());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.states().get(EndpointGroup.USERS));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> call(HttpMethod method,
+                                                           CompletableFuture<ResponseEntity<Object>> answer) {
+        return circuitBreakers.call(EndpointGroup.ITEMS, method, timeout -> {
+            timeouts.add(timeout);
+            return answer;
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServerResponseCacheTest {
+
+    private static final String SERVER_URL = "http://server";
+
+    private static final URI ITEM = URI.create(SERVER_URL + "/items/5");
+
+    private MeterRegistry meterRegistry;
+
+    private ServerResponseCache cache;
+
+    private AtomicInteger requests;
+
+    @BeforeEach
+    public void prepare() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ServerResponseCache(100, 30, meterRegistry);
+        requests = new AtomicInteger();
+    }
+
+    @Test
+    void getTestKeepsResponsesPerViewer() throws Exception {
+        assertEquals("item for 1", cache.get(ITEM, 1L, () -> request("item for 1")).get().getBody());
+        assertEquals("item for 1", cache.get(ITEM, 1L, () -> request("other")).get().getBody());
+        assertEquals("item for 2", cache.get(ITEM, 2L, () -> request("item for 2")).get().getBody());
+        assertEquals("anonymous", cache.get(ITEM, null, () -> request("anonymous")).get().getBody());
+
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void getTestDoesNotKeepErrors() throws Exception {
+        cache.get(ITEM, 1L, () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }).get();
+        cache.get(ITEM, 1L, () -> request("item")).get();
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void evictTestDropsEntriesUnderResourceOnly() throws Exception {
+        cache.get(ITEM, 1L, () -> request("item 5")).get();
+        cache.get(URI.create(SERVER_URL + "/items/50"), 1L, () -> request("item 50")).get();
+
+        cache.evict(SERVER_URL + "/items/5");
+        cache.get(ITEM, 1L, () -> request("item 5")).get();
+        cache.get(URI.create(SERVER_URL + "/items/50"), 1L, () -> request("item 50")).get();
+
+        assertEquals(3, requests.get());
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void patchTestEvictsCachedItemForEveryViewer() throws Exception {
+        ServerHttpClient httpClient = Mockito.mock(ServerHttpClient.class);
+        when(httpClient.exchange(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(ResponseEntity.ok("item")));
+        ServerClientProperties clientProperties = new ServerClientProperties();
+        ItemClient itemClient = new ItemClient(SERVER_URL, httpClient, Mockito.mock(ServerStreamClient.class), cache,
+                new InFlightRequests(clientProperties, meterRegistry),
+                new ServerCircuitBreakers(new CircuitBreakerProperties(), meterRegistry));
+
+        itemClient.findById(1L, 5L).get();
+        itemClient.findById(1L, 5L).get();
+        itemClient.findById(2L, 5L).get();
+        verify(httpClient, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM), any(), any(), any());
+
+        itemClient.update(1L, 5L, ItemDto.builder().name("new name").build()).get();
+        itemClient.findById(1L, 5L).get();
+        itemClient.findById(2L, 5L).get();
+        verify(httpClient, times(1)).exchange(eq(HttpMethod.PATCH), eq(ITEM), any(), any(), any());
+        verify(httpClient, times(4)).exchange(eq(HttpMethod.GET), eq(ITEM), any(), any(), any());
+    }
+
+    @Test
+    void bulkCreateTestEvictsSearchOnceStreamedAnswerEnds() throws Exception {
+        URI search = URI.create(SERVER_URL + "/items/search?text=drill");
+        ServerStreamClient streamClient = Mockito.mock(ServerStreamClient.class);
+        when(streamClient.exchange(eq(HttpMethod.POST), eq(URI.create(SERVER_URL + "/items/bulk")), any(), any(),
+                any())).thenReturn(ResponseEntity.ok(out -> out.write("{}\n".getBytes(StandardCharsets.UTF_8))));
+        ServerClientProperties clientProperties = new ServerClientProperties();
+        ItemClient itemClient = new ItemClient(SERVER_URL, Mockito.mock(ServerHttpClient.class), streamClient, cache,
+                new InFlightRequests(clientProperties, meterRegistry),
+                new ServerCircuitBreakers(new CircuitBreakerProperties(), meterRegistry));
+        cache.get(search, 1L, () -> request("drill")).get();
+
+        ResponseEntity<StreamingResponseBody> response = itemClient.bulkCreate(1L, "application/x-ndjson",
+                new ByteArrayInputStream(new byte[0]));
+        cache.get(search, 1L, () -> request("drill")).get();
+        assertEquals(1, requests.get());
+
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(new ByteArrayOutputStream());
+        cache.get(search, 1L, () -> request("drill")).get();
+        assertEquals(2, requests.get());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> request(String body) {
+        requests.incrementAndGet();
+        return CompletableFuture.completedFuture(ResponseEntity.ok(body));
+    }
+}
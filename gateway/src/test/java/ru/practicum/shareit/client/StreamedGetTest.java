@@ -0,0 +1,159 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamedGetTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private static final String NEXT = "</bookings/owner?afterId=7>; rel=\"next\"";
+
+    private final byte[] page = new byte[1024 * 1024];
+
+    private final AtomicReference<HttpHeaders> received = new AtomicReference<>();
+
+    private HttpServer server;
+
+    private ServerHttpClient httpClient;
+
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    public void prepare() throws IOException {
+        Arrays.fill(page, (byte) 'x');
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ServerClientProperties properties = new ServerClientProperties();
+        httpClient = new ServerHttpClient(new Jackson2ObjectMapperBuilder(), properties, meterRegistry);
+        bookingClient = new BookingClient("http://localhost:" + server.getAddress().getPort(), httpClient,
+                Mockito.mock(ServerStreamClient.class), new ServerResponseCache(100, 30, meterRegistry),
+                new InFlightRequests(properties, meterRegistry),
+                new ServerCircuitBreakers(new CircuitBreakerProperties(), meterRegistry));
+    }
+
+    @AfterEach
+    public void clear() {
+        RequestContextHolder.resetRequestAttributes();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void getTestHandsOverHeadBeforeBodyArrives() throws Exception {
+        CountDownLatch headReceived = new CountDownLatch(1);
+        server.createContext("/bookings/owner", exchange -> {
+            received.set(headers(exchange));
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, SMILE);
+            exchange.getResponseHeaders().set(HttpHeaders.LINK, NEXT);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page, 0, page.length / 2);
+                out.flush();
+                await(headReceived);
+                out.write(page, page.length / 2, page.length / 2);
+            }
+        });
+        callerAccepts(SMILE);
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.getOwnerBookings(1L, "all", 0, 10,
+                null, null).get(5, TimeUnit.SECONDS);
+        headReceived.countDown();
+        ByteArrayOutputStream relayed = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(relayed);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(SMILE, response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertEquals(NEXT, response.getHeaders().getFirst(HttpHeaders.LINK));
+        assertArrayEquals(page, relayed.toByteArray());
+        assertEquals(SMILE, received.get().getFirst(HttpHeaders.ACCEPT));
+        assertEquals("1", received.get().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getTestAsksForJsonWithoutCallerPreference() throws Exception {
+        server.createContext("/bookings", exchange -> {
+            received.set(headers(exchange));
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.getBookings(1L, "all", 0, 10, null, null)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("application/json", received.get().getFirst(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getTestFailsRelayWhenServerBreaksOff() throws Exception {
+        server.createContext("/bookings/owner", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, page.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(page, 0, page.length / 2);
+            out.flush();
+            exchange.getHttpContext().getServer().stop(0);
+        });
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.getOwnerBookings(1L, "all", 0, 10,
+                null, null).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(response.getBody());
+        assertThrows(IOException.class, () -> response.getBody().writeTo(new ByteArrayOutputStream()));
+    }
+
+    private static HttpHeaders headers(HttpExchange exchange) {
+        HttpHeaders headers = new HttpHeaders();
+        exchange.getRequestHeaders().forEach(headers::addAll);
+        return headers;
+    }
+
+    private static void callerAccepts(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void prepare() {
+        LimitProperties properties = new LimitProperties();
+        properties.getGroups().put(EndpointGroup.ITEMS, group(2, 1, 10));
+        properties.getGroups().put(EndpointGroup.BOOKINGS, group(10, 10, 1));
+        meterRegistry = new SimpleMeterRegistry();
+        mvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilters(new RateLimitFilter(properties, meterRegistry, clock::get))
+                .build();
+    }
+
+    @Test
+    void filterTestRejectsUserOverRateWithRetryAfter() throws Exception {
+        mvc.perform(get("/items/1").header(USER_ID, 1)).andExpect(status().isOk());
+        mvc.perform(get("/items/1").header(USER_ID, 1)).andExpect(status().isOk());
+        mvc.perform(get("/items/1").header(USER_ID, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error").value("too many requests"));
+
+        mvc.perform(get("/items/1").header(USER_ID, 2)).andExpect(status().isOk());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        mvc.perform(get("/items/1").header(USER_ID, 1)).andExpect(status().isOk());
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.limit.rejected")
+                .tag("group", "items").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void filterTestRejectsOverBulkheadUntilAsyncResponseCompletes() throws Exception {
+        MvcResult pending = mvc.perform(get("/bookings/pending").header(USER_ID, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(get("/bookings/pending").header(USER_ID, 2))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("too many concurrent requests"));
+
+        pending.getRequest().getAsyncContext().complete();
+        mvc.perform(get("/bookings/pending").header(USER_ID, 2))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void filterTestLeavesOtherPathsAlone() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(get("/health")).andExpect(status().isOk());
+        }
+    }
+
+    private static LimitProperties.Group group(int burst, double ratePerSecond, int maxConcurrent) {
+        LimitProperties.Group group = new LimitProperties.Group();
+        group.setBurst(burst);
+        group.setRatePerSecond(ratePerSecond);
+        group.setMaxConcurrent(maxConcurrent);
+        return group;
+    }
+
+    @RestController
+    static class TestController {
+
+        @GetMapping("/items/1")
+        public String item() {
+            return "item";
+        }
+
+        @GetMapping("/bookings/pending")
+        public CompletableFuture<String> pending() {
+            return new CompletableFuture<>();
+        }
+
+        @GetMapping("/health")
+        public String health() {
+            return "up";
+        }
+    }
+}
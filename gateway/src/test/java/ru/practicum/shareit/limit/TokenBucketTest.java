@@ -0,0 +1,47 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+
+    private static final long START = TimeUnit.HOURS.toNanos(1);
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquireTestAdmitsBurstThenWaitsForRefill() {
+        TokenBucket bucket = new TokenBucket(2, 1, START);
+
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(SECOND, bucket.tryAcquire(START));
+        assertEquals(SECOND / 2, bucket.tryAcquire(START + SECOND / 2));
+        assertEquals(0, bucket.tryAcquire(START + SECOND));
+        assertEquals(SECOND, bucket.tryAcquire(START + SECOND));
+    }
+
+    @Test
+    void tryAcquireTestRefillsNoMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(2, 1, START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        long later = START + 10 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void tryAcquireTestRefillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1, 4, START);
+
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(SECOND / 4, bucket.tryAcquire(START));
+        assertEquals(0, bucket.tryAcquire(START + SECOND / 4));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * Adds a strong ETag hashed from the serialized body to the single item, single request and user answers
+ * and replaces the body with {@code 304 Not Modified} when the caller already holds that representation.
+ */
+@Component
+public class ConditionalGetFilter extends ShallowEtagHeaderFilter {
+
+    private static final List<String> PATTERNS = List.of("/items/{itemId:\\d+}", "/users", "/users/{userId:\\d+}",
+            "/requests/{requestId:\\d+}");
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATTERNS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
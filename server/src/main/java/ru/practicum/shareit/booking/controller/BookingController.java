@@ -2,12 +2,24 @@ package ru.practicum.shareit.booking.controller;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.export.BookingExportFormat;
+import ru.practicum.shareit.booking.export.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
@@ -19,6 +31,8 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    private final BookingExporter bookingExporter;
+
     @PostMapping
     public BookingInfoDto create(@RequestHeader(USER_ID) Long userId,
                                  @RequestBody BookingDto bookingDto) {
@@ -37,19 +51,70 @@ public class BookingController {
         return bookingService.get(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public List<BookingInfoDto> getAllById(@RequestHeader(USER_ID) Long userId, @RequestParam List<Long> ids) {
+        return bookingService.getAllById(userId, ids);
+    }
+
     @GetMapping
-    public List<BookingInfoDto> getUsersBookings(@RequestHeader(USER_ID) Long userId,
-                                                 @RequestParam(required = false, defaultValue = "ALL") State state,
-                                                 @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                 @RequestParam(defaultValue = "10", required = false) Integer size) {
-        return bookingService.getUsersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingInfoDto>> getUsersBookings(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") State state,
+            @RequestParam(defaultValue = "0", required = false) Integer from,
+            @RequestParam(defaultValue = "10", required = false) Integer size,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId,
+            HttpServletRequest request) {
+        return page(bookingService.getUsersBookings(userId, state, from, size, afterStart, afterId), state, request);
     }
 
     @GetMapping("/owner")
-    public List<BookingInfoDto> getOwnersBookings(@RequestHeader(USER_ID) Long userId,
-                                                  @RequestParam(required = false, defaultValue = "ALL") State state,
-                                                  @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                  @RequestParam(defaultValue = "10", required = false) Integer size) {
-        return bookingService.getOwnersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingInfoDto>> getOwnersBookings(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") State state,
+            @RequestParam(defaultValue = "0", required = false) Integer from,
+            @RequestParam(defaultValue = "10", required = false) Integer size,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId,
+            HttpServletRequest request) {
+        return page(bookingService.getOwnersBookings(userId, state, from, size, afterStart, afterId), state,
+                request);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnersBookings(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") State state,
+            @RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format) {
+        StreamingResponseBody body = bookingExporter.exportOwnersBookings(userId, state, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Answers the page as a plain list; when more rows follow, a {@code Link} header with {@code rel="next"}
+     * points at the same query continued after the last row by its keyset cursor.
+     */
+    private static ResponseEntity<List<BookingInfoDto>> page(Slice<BookingInfoDto> bookings, State state,
+                                                             HttpServletRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext() && bookings.hasContent()) {
+            BookingInfoDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            String next = UriComponentsBuilder.fromPath(request.getRequestURI())
+                    .queryParam("state", state)
+                    .queryParam("size", bookings.getSize())
+                    .queryParam("afterStart", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(last.getStart()))
+                    .queryParam("afterId", last.getId())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(bookings.getContent());
     }
 }
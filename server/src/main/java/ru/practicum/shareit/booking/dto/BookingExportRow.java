@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported booking, read by a JPQL constructor expression like {@link BookingView}.
+ */
+@Value
+public class BookingExportRow {
+
+    Long id;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    BookingStatus status;
+
+    Long itemId;
+
+    String itemName;
+
+    Long bookerId;
+
+    String bookerName;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.PaginationException;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingQuery {
+
+    Long userId;
+
+    State state;
+
+    LocalDateTime now;
+
+    LocalDateTime afterStart;
+
+    Long afterId;
+
+    Pageable pageable;
+
+    public static BookingQuery of(Long userId, State state, Integer from, Integer size,
+                                  LocalDateTime afterStart, Long afterId) {
+        if (from < 0 || size < 1 || (afterStart == null) != (afterId == null)) {
+            throw new PaginationException("wrong pagination params");
+        }
+        Pageable pageable = afterStart != null ? PageRequest.of(0, size) : PageRequest.of(from / size, size);
+        return new BookingQuery(userId, state, LocalDateTime.now(), afterStart, afterId, pageable);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking joined with its item and booker, read by a JPQL constructor expression:
+ * one row per booking, without hydrating entities or touching lazy proxies.
+ */
+@Value
+public class BookingView {
+
+    Long id;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    BookingStatus status;
+
+    Long itemId;
+
+    String itemName;
+
+    String itemDescription;
+
+    Boolean itemAvailable;
+
+    Long itemRequestId;
+
+    Long bookerId;
+
+    String bookerName;
+
+    String bookerEmail;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.export;
+
+import org.springframework.http.MediaType;
+
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    BookingExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.valueOf(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
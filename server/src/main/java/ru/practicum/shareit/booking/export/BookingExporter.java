@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams every booking of an owner's items straight from a forward-only database cursor to the response.
+ * Rows are read as column projections with a fetch size, so no entity is hydrated and only one fetch
+ * of rows is held at a time; heap use does not depend on the number of bookings exported.
+ */
+@Component
+@Slf4j
+public class BookingExporter {
+
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName\n";
+
+    private final BookingRepository bookingRepository;
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExporter(BookingRepository bookingRepository, UserRepository userRepository,
+                           ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportOwnersBookings(Long userId, State state, BookingExportFormat format) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("user not found");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return out -> {
+            try {
+                Long rows = transactionTemplate.execute(status -> {
+                    try (Stream<BookingExportRow> bookings = bookingRepository.streamOwnerBookings(userId,
+                            state, now)) {
+                        return format == BookingExportFormat.CSV
+                                ? writeCsv(bookings.iterator(), out)
+                                : writeJson(bookings.iterator(), out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("exported {} bookings of owner {} as {}", rows, userId, format);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private long writeJson(Iterator<BookingExportRow> bookings, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            while (bookings.hasNext()) {
+                BookingExportRow booking = bookings.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", booking.getId());
+                generator.writeStringField("start", format(booking.getStart()));
+                generator.writeStringField("end", format(booking.getEnd()));
+                generator.writeStringField("status", booking.getStatus().name());
+                generator.writeNumberField("itemId", booking.getItemId());
+                generator.writeStringField("itemName", booking.getItemName());
+                generator.writeNumberField("bookerId", booking.getBookerId());
+                generator.writeStringField("bookerName", booking.getBookerName());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<BookingExportRow> bookings, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            while (bookings.hasNext()) {
+                BookingExportRow booking = bookings.next();
+                writer.write(booking.getId() + "," + format(booking.getStart()) + "," + format(booking.getEnd())
+                        + "," + booking.getStatus().name() + "," + booking.getItemId() + ","
+                        + quote(booking.getItemName()) + "," + booking.getBookerId() + ","
+                        + quote(booking.getBookerName()) + "\n");
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
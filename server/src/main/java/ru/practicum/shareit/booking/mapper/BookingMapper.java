@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.dto.LastBookingDto;
 import ru.practicum.shareit.booking.dto.NextBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -22,6 +23,16 @@ public interface BookingMapper {
     @Mapping(target = "status", source = "booking.bookingStatus")
     BookingInfoDto toBookingInfoDto(Booking booking, UserDto userDto, ItemDto itemDto);
 
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    @Mapping(target = "item.requestId", source = "itemRequestId")
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    BookingInfoDto toBookingInfoDto(BookingView bookingView);
+
     @Mapping(target = "id", source = "bookingInfoDto.id")
     @Mapping(target = "start", source = "bookingInfoDto.start", dateFormat = "YYYY-MM-DDTHH:mm:ss")
     @Mapping(target = "end", source = "bookingInfoDto.end", dateFormat = "YYYY-MM-DDTHH:mm:ss")
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.List;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    public static final List<BookingStatus> BLOCKING = List.of(WAITING, APPROVED);
 }
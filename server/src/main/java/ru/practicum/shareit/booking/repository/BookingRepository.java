@@ -1,44 +1,26 @@
 package ru.practicum.shareit.booking.repository;
 
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingViewRepository {
 
-    Page<Booking> findAllByBookerId(Long bookerId, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId,
-                                                                 LocalDateTime start,
-                                                                 LocalDateTime end,
-                                                                 PageRequest pageRequest);
-
-    Page<Booking> findAllByBookerIdAndBookingStatus(Long bookerId, BookingStatus status, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerId(Long ownerId, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime start, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId,
-                                                                    LocalDateTime start,
-                                                                    LocalDateTime end,
-                                                                    PageRequest pageRequest);
-
-    Page<Booking> findAllByItemOwnerIdAndBookingStatus(Long ownerId, BookingStatus status, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
     Optional<Booking> findTopByItemIdAndBookerIdAndEndIsBeforeAndBookingStatusIs(Long itemId,
                                                                                  Long bookerId,
@@ -46,13 +28,33 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                                                                  BookingStatus bookingStatus,
                                                                                  Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(Long userId,
-                                                                       BookingStatus bookingStatus,
-                                                                       LocalDateTime localDateTime,
-                                                                       Sort sort);
-
-    List<Booking> findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(Long userId,
-                                                                      BookingStatus bookingStatus,
-                                                                      LocalDateTime localDateTime,
-                                                                      Sort sort);
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end " +
+            "from Booking as b " +
+            "where b.item.id in :itemIds and b.bookingStatus = :status and b.start = " +
+            "(select max(l.start) from Booking as l " +
+            "where l.item.id = b.item.id and l.bookingStatus = :status and l.start < :now) " +
+            "order by b.id desc")
+    List<BookingSummary> findLastBookings(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("status") BookingStatus status,
+                                          @Param("now") LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end " +
+            "from Booking as b " +
+            "where b.item.id in :itemIds and b.bookingStatus = :status and b.start = " +
+            "(select min(n.start) from Booking as n " +
+            "where n.item.id = b.item.id and n.bookingStatus = :status and n.start > :now) " +
+            "order by b.id asc")
+    List<BookingSummary> findNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("status") BookingStatus status,
+                                          @Param("now") LocalDateTime now);
+
+    List<BookingPeriod> findAllByItemIdAndBookingStatusInAndEndIsAfter(Long itemId,
+                                                                       Collection<BookingStatus> statuses,
+                                                                       LocalDateTime end);
+
+    Stream<BookingPeriod> findAllByItemIdAndBookingStatusInAndEndIsAfterAndStartIsBeforeOrderByStartAsc(
+            Long itemId,
+            Collection<BookingStatus> statuses,
+            LocalDateTime from,
+            LocalDateTime to);
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.State;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Booking queries whose JPQL is assembled per call: only the predicate of the requested state
+ * is included and the keyset condition only when a cursor is given, so the database plans
+ * each variant on its own instead of one generic plan full of always-true branches.
+ */
+public interface BookingViewRepository {
+
+    Slice<BookingView> findBookerBookings(Long userId, State state, LocalDateTime now,
+                                          LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    Slice<BookingView> findOwnerBookings(Long userId, State state, LocalDateTime now,
+                                         LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    /**
+     * Streams all bookings of the owner's items in the list order; must be consumed and closed
+     * inside a transaction.
+     */
+    Stream<BookingExportRow> streamOwnerBookings(Long userId, State state, LocalDateTime now);
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.State;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+
+    private static final String BOOKING_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.bookingStatus, i.id, i.name, i.description, i.available, i.request.id, " +
+            "u.id, u.name, u.email) " +
+            "from Booking as b join b.item as i join b.booker as u ";
+
+    private static final String EXPORT_ROW = "select new ru.practicum.shareit.booking.dto.BookingExportRow(" +
+            "b.id, b.start, b.end, b.bookingStatus, i.id, i.name, u.id, u.name) " +
+            "from Booking as b join b.item as i join b.booker as u ";
+
+    private static final String BY_BOOKER = "where b.booker.id = :userId ";
+
+    private static final String BY_OWNER = "where i.owner.id = :userId ";
+
+    private static final String AFTER_CURSOR = "and b.start <= :cursorStart " +
+            "and (b.start < :cursorStart or b.id < :cursorId) ";
+
+    private static final String ORDER = "order by b.start desc, b.id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingView> findBookerBookings(Long userId, State state, LocalDateTime now,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable) {
+        return find(BY_BOOKER, userId, state, now, cursorStart, cursorId, pageable);
+    }
+
+    @Override
+    public Slice<BookingView> findOwnerBookings(Long userId, State state, LocalDateTime now,
+                                                LocalDateTime cursorStart, Long cursorId, Pageable pageable) {
+        return find(BY_OWNER, userId, state, now, cursorStart, cursorId, pageable);
+    }
+
+    @Override
+    public Stream<BookingExportRow> streamOwnerBookings(Long userId, State state, LocalDateTime now) {
+        return query(EXPORT_ROW, BookingExportRow.class, BY_OWNER, userId, state, now, null, null)
+                .setHint(HINT_FETCH_SIZE, 1000)
+                .setHint(HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    private Slice<BookingView> find(String byUser, Long userId, State state, LocalDateTime now,
+                                    LocalDateTime cursorStart, Long cursorId, Pageable pageable) {
+        List<BookingView> rows = query(BOOKING_VIEW, BookingView.class, byUser, userId, state, now,
+                cursorStart, cursorId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private <T> TypedQuery<T> query(String select, Class<T> type, String byUser, Long userId, State state,
+                                    LocalDateTime now, LocalDateTime cursorStart, Long cursorId) {
+        boolean cursor = cursorStart != null;
+        String jpql = select + byUser + byState(state) + (cursor ? AFTER_CURSOR : "") + ORDER;
+        TypedQuery<T> query = entityManager.createQuery(jpql, type)
+                .setParameter("userId", userId);
+        if (usesNow(state)) {
+            query.setParameter("now", now);
+        }
+        if (cursor) {
+            query.setParameter("cursorStart", cursorStart)
+                    .setParameter("cursorId", cursorId);
+        }
+        return query;
+    }
+
+    private static String byState(State state) {
+        switch (state) {
+            case CURRENT:
+                return "and b.start < :now and b.end > :now ";
+            case PAST:
+                return "and b.end < :now ";
+            case FUTURE:
+                return "and b.start > :now ";
+            case WAITING:
+                return "and b.bookingStatus = ru.practicum.shareit.booking.model.BookingStatus.WAITING ";
+            case REJECTED:
+                return "and b.bookingStatus = ru.practicum.shareit.booking.model.BookingStatus.REJECTED ";
+            default:
+                return "";
+        }
+    }
+
+    private static boolean usesNow(State state) {
+        return state == State.CURRENT || state == State.PAST || state == State.FUTURE;
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Per-item index of WAITING and APPROVED booking intervals used to reject overlapping bookings early.
+ * Every item gets its own timeline sorted by start; each slot also keeps the maximum end among
+ * all slots starting at or before it, so an overlap check is a single floor lookup.
+ * The index is a process-local cache: timelines are loaded from the database on first use, dropped
+ * after a fixed time or when the cache is full, and a hit is confirmed against the database before
+ * a booking is rejected. The guarantee itself is the {@code bookings_no_overlap} exclusion constraint,
+ * which also catches bookings written by other server instances; its violation is reported
+ * like an overlap found in memory.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, Timeline> timelines;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.index.max-items:10000}") long maxItems,
+                                @Value("${shareit.bookings.index.ttl-seconds:60}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public void book(Booking booking, Runnable saver) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        Timeline timeline = timelines.get(itemId, id -> new Timeline());
+        synchronized (timeline) {
+            if (!timeline.loaded) {
+                load(itemId, timeline);
+            }
+            timeline.prune(LocalDateTime.now());
+            if (timeline.overlaps(start, end)) {
+                load(itemId, timeline);
+                if (timeline.overlaps(start, end)) {
+                    throw alreadyBooked(itemId);
+                }
+            }
+            try {
+                saver.run();
+            } catch (DataIntegrityViolationException e) {
+                if (!isExclusionViolation(e)) {
+                    throw e;
+                }
+                timelines.invalidate(itemId);
+                throw alreadyBooked(itemId);
+            }
+            timeline.add(booking.getId(), start, end);
+        }
+    }
+
+    public void release(Long itemId, Long bookingId, LocalDateTime start) {
+        Timeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            return;
+        }
+        synchronized (timeline) {
+            timeline.remove(bookingId, start);
+        }
+    }
+
+    private void load(Long itemId, Timeline timeline) {
+        List<BookingPeriod> periods = bookingRepository
+                .findAllByItemIdAndBookingStatusInAndEndIsAfter(itemId, BookingStatus.BLOCKING,
+                        LocalDateTime.now());
+        timeline.slots.clear();
+        for (BookingPeriod period : periods) {
+            timeline.add(period.getId(), period.getStart(), period.getEnd());
+        }
+        timeline.loaded = true;
+        log.info("booking timeline for item id {} loaded; size: {}", itemId, periods.size());
+    }
+
+    private static NotAvailableException alreadyBooked(Long itemId) {
+        return new NotAvailableException("item id " + itemId + " already booked for this period");
+    }
+
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Timeline {
+
+        private final TreeMap<SlotKey, Slot> slots = new TreeMap<>();
+
+        private boolean loaded;
+
+        private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<SlotKey, Slot> floor = slots.lowerEntry(SlotKey.lowest(end));
+            return floor != null && floor.getValue().maxEnd.isAfter(start);
+        }
+
+        private void add(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            SlotKey key = new SlotKey(start, bookingId);
+            slots.put(key, new Slot(end));
+            recompute(key);
+        }
+
+        private void remove(Long bookingId, LocalDateTime start) {
+            SlotKey key = new SlotKey(start, bookingId);
+            if (slots.remove(key) != null) {
+                recompute(key);
+            }
+        }
+
+        private void prune(LocalDateTime now) {
+            Iterator<Slot> iterator = slots.values().iterator();
+            while (iterator.hasNext()) {
+                Slot slot = iterator.next();
+                if (slot.maxEnd.isAfter(now)) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+
+        private void recompute(SlotKey from) {
+            Map.Entry<SlotKey, Slot> previous = slots.lowerEntry(from);
+            LocalDateTime maxEnd = previous == null ? null : previous.getValue().maxEnd;
+            boolean first = true;
+            for (Slot slot : slots.tailMap(from, true).values()) {
+                LocalDateTime slotMaxEnd = maxEnd != null && maxEnd.isAfter(slot.end) ? maxEnd : slot.end;
+                if (!first && slotMaxEnd.equals(slot.maxEnd)) {
+                    return;
+                }
+                slot.maxEnd = slotMaxEnd;
+                maxEnd = slotMaxEnd;
+                first = false;
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        private final LocalDateTime end;
+
+        private LocalDateTime maxEnd;
+
+        private Slot(LocalDateTime end) {
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private static final class SlotKey implements Comparable<SlotKey> {
+
+        private static final Comparator<SlotKey> ORDER = Comparator
+                .comparing((SlotKey key) -> key.start)
+                .thenComparing(key -> key.bookingId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final LocalDateTime start;
+
+        private final Long bookingId;
+
+        private SlotKey(LocalDateTime start, Long bookingId) {
+            this.start = start;
+            this.bookingId = bookingId;
+        }
+
+        private static SlotKey lowest(LocalDateTime start) {
+            return new SlotKey(start, null);
+        }
+
+        @Override
+        public int compareTo(SlotKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
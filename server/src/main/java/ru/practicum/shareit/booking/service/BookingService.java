@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.dto.State;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -14,9 +16,13 @@ public interface BookingService {
 
     BookingInfoDto get(Long userId, Long bookingId);
 
-    List<BookingInfoDto> getUsersBookings(Long userId, State state, Integer from, Integer size);
+    List<BookingInfoDto> getAllById(Long userId, List<Long> bookingIds);
 
-    List<BookingInfoDto> getOwnersBookings(Long userId, State state, Integer from, Integer size);
+    Slice<BookingInfoDto> getUsersBookings(Long userId, State state, Integer from, Integer size,
+                                           LocalDateTime afterStart, Long afterId);
+
+    Slice<BookingInfoDto> getOwnersBookings(Long userId, State state, Integer from, Integer size,
+                                            LocalDateTime afterStart, Long afterId);
 
     Boolean isExist(Long bookingId);
 }
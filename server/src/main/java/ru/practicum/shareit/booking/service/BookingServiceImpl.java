@@ -2,12 +2,12 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.BookingQuery;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,12 +17,16 @@ import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingProjection;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -43,7 +47,9 @@ public class BookingServiceImpl implements BookingService {
 
     private final ItemMapper itemMapper;
 
-    private PageRequest pageRequest;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final ItemBookingProjection itemBookingProjection;
 
 
     @Override
@@ -81,7 +87,7 @@ public class BookingServiceImpl implements BookingService {
                 .booker(user)
                 .bookingStatus(BookingStatus.WAITING)
                 .build();
-        bookingRepository.save(booking);
+        bookingIntervalIndex.book(booking, () -> bookingRepository.save(booking));
 
         BookingInfoDto bookingInfoDto = bookingMapper
                 .toBookingInfoDto(booking, userMapper.toUserDto(user), itemMapper.toItemDto(item));
@@ -115,6 +121,7 @@ public class BookingServiceImpl implements BookingService {
                     bookingMapper.toBookingInfoDto(booking, userMapper.toUserDto(booking.getBooker()),
                             itemMapper.toItemDto(item));
             bookingRepository.save(booking);
+            itemBookingProjection.approved(booking);
             log.info("booking status updated");
             return bookingInfoDto;
         } else {
@@ -124,6 +131,7 @@ public class BookingServiceImpl implements BookingService {
                             itemMapper.toItemDto(item));
             bookingInfoDto.setState(State.REJECTED);
             bookingRepository.save(booking);
+            bookingIntervalIndex.release(item.getId(), booking.getId(), booking.getStart());
             log.info("booking status updated");
             return bookingInfoDto;
         }
@@ -147,107 +155,63 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingInfoDto> getUsersBookings(Long userId,
-                                                 State state,
-                                                 Integer from,
-                                                 Integer size) {
-        log.info("search user's bookings by state {}", state);
+    public List<BookingInfoDto> getAllById(Long userId, List<Long> bookingIds) {
+        log.info("looking for info about bookings {}", bookingIds);
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("user id " + userId + " not found");
         }
-        if (from < 0 || size < 1) {
-            throw new PaginationException("wrong pagination params");
-        }
-        pageRequest = setPageRequestParams(from, size);
-        Page<Booking> resultList;
-        switch (state) {
-            case FUTURE:
-                log.info("getting future user's bookings");
-                resultList = bookingRepository.findAllByBookerIdAndStartIsAfter(userId,
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case PAST:
-                log.info("getting past user's bookings");
-                resultList = bookingRepository.findAllByBookerIdAndEndIsBefore(userId,
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case CURRENT:
-                log.info("getting current user's bookings");
-                resultList = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case WAITING:
-                log.info("getting user's bookings waiting to approve");
-                resultList = bookingRepository.findAllByBookerIdAndBookingStatus(userId,
-                        BookingStatus.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                log.info("getting rejected user's bookings");
-                resultList = bookingRepository.findAllByBookerIdAndBookingStatus(userId,
-                        BookingStatus.REJECTED, pageRequest);
-                break;
-            default:
-                log.info("getting all user's bookings");
-                resultList = bookingRepository.findAllByBookerId(userId, pageRequest);
-        }
-        List<BookingInfoDto> bookingInfoDtoList = resultList.stream().map(booking ->
-                        bookingMapper.toBookingInfoDto(booking, userMapper.toUserDto(booking.getBooker()),
-                                itemMapper.toItemDto(booking.getItem())))
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(new LinkedHashSet<>(bookingIds)).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        List<BookingInfoDto> bookingInfoDtoList = bookingIds.stream()
+                .distinct()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .filter(booking -> booking.getBooker().getId().equals(userId)
+                        || booking.getItem().getOwner().getId().equals(userId))
+                .map(this::toBookingInfoDto)
                 .collect(Collectors.toList());
         log.info("result list size: {}", bookingInfoDtoList.size());
         return bookingInfoDtoList;
     }
 
     @Override
-    public List<BookingInfoDto> getOwnersBookings(Long userId, State state, Integer from, Integer size) {
-        log.info("searching for item owner's bookings");
+    @Transactional(readOnly = true)
+    public Slice<BookingInfoDto> getUsersBookings(Long userId,
+                                                  State state,
+                                                  Integer from,
+                                                  Integer size,
+                                                  LocalDateTime afterStart,
+                                                  Long afterId) {
+        log.info("search user's bookings by state {}", state);
         if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("user not found");
-        }
-        if (from < 0 || size < 1) {
-            throw new PaginationException("wrong pagination params");
+            throw new NotFoundException("user id " + userId + " not found");
         }
-        pageRequest = setPageRequestParams(from, size);
-        Page<Booking> resultList;
-        switch (state) {
-            case FUTURE:
-                log.info("getting all item owner's future bookings");
-                resultList = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case PAST:
-                log.info("getting all item owner's past bookings");
-                resultList = bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case CURRENT:
-                log.info("getting current item owner's bookings");
-                resultList = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            case WAITING:
-                log.info("getting item owner's bookings with waiting status");
-                resultList = bookingRepository.findAllByItemOwnerIdAndBookingStatus(userId,
-                        BookingStatus.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                log.info("getting rejected item owner's bookings");
-                resultList = bookingRepository.findAllByItemOwnerIdAndBookingStatus(userId,
-                        BookingStatus.REJECTED, pageRequest);
-                break;
-            default:
-                log.info("getting all item owner's bookings");
-                resultList = bookingRepository.findAllByItemOwnerId(userId, pageRequest);
+        BookingQuery query = BookingQuery.of(userId, state, from, size, afterStart, afterId);
+        Slice<BookingInfoDto> bookings = bookingRepository.findBookerBookings(query.getUserId(), query.getState(),
+                query.getNow(), query.getAfterStart(), query.getAfterId(), query.getPageable())
+                .map(bookingMapper::toBookingInfoDto);
+        log.info("result list size: {}, has next: {}", bookings.getNumberOfElements(), bookings.hasNext());
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingInfoDto> getOwnersBookings(Long userId,
+                                                   State state,
+                                                   Integer from,
+                                                   Integer size,
+                                                   LocalDateTime afterStart,
+                                                   Long afterId) {
+        log.info("searching for item owner's bookings by state {}", state);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("user not found");
         }
-        List<BookingInfoDto> bookingInfoDtoList = resultList.stream().map(booking ->
-                bookingMapper.toBookingInfoDto(booking, userMapper.toUserDto(booking.getBooker()),
-                        itemMapper.toItemDto(booking.getItem()))).collect(Collectors.toList());
-        log.info("result list size: {}", bookingInfoDtoList.size());
-        return bookingInfoDtoList;
+        BookingQuery query = BookingQuery.of(userId, state, from, size, afterStart, afterId);
+        Slice<BookingInfoDto> bookings = bookingRepository.findOwnerBookings(query.getUserId(), query.getState(),
+                query.getNow(), query.getAfterStart(), query.getAfterId(), query.getPageable())
+                .map(bookingMapper::toBookingInfoDto);
+        log.info("result list size: {}, has next: {}", bookings.getNumberOfElements(), bookings.hasNext());
+        return bookings;
     }
 
     @Override
@@ -256,7 +220,8 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.existsById(bookingId);
     }
 
-    private PageRequest setPageRequestParams(Integer from, Integer size) {
-        return PageRequest.of(from / size, size, Sort.Direction.DESC, "start");
+    private BookingInfoDto toBookingInfoDto(Booking booking) {
+        return bookingMapper.toBookingInfoDto(booking, userMapper.toUserDto(booking.getBooker()),
+                itemMapper.toItemDto(booking.getItem()));
     }
 }
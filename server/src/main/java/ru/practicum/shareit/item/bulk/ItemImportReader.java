@@ -0,0 +1,193 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.practicum.shareit.exception.ImportFormatException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an item upload one row at a time, so only the current row is held in memory.
+ * NDJSON carries one item object per line; CSV starts with a header naming the
+ * {@code name}, {@code description}, {@code available} and optional {@code requestId} columns
+ * and follows RFC 4180 quoting. A row that cannot be parsed or misses a required field is returned
+ * rejected with the reason instead of failing the whole upload.
+ */
+public class ItemImportReader implements Closeable {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final ItemImportFormat format;
+
+    private final BufferedReader reader;
+
+    private final ObjectReader itemReader;
+
+    private Map<String, Integer> columns;
+
+    private int row;
+
+    public ItemImportReader(ItemImportFormat format, BufferedReader reader, ObjectReader itemReader) {
+        this.format = format;
+        this.reader = reader;
+        this.itemReader = itemReader.forType(ItemDto.class);
+    }
+
+    /**
+     * @return the next row, or {@code null} once the upload is exhausted
+     */
+    public ItemImportRow next() throws IOException {
+        return format == ItemImportFormat.NDJSON ? nextJson() : nextCsv();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ItemImportRow nextJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        row++;
+        try {
+            return validated(itemReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return ItemImportRow.rejected(row, "unreadable item: " + e.getOriginalMessage());
+        }
+    }
+
+    private ItemImportRow nextCsv() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        row++;
+        ItemDto item = new ItemDto();
+        item.setName(field(record, "name"));
+        item.setDescription(field(record, "description"));
+        String available = field(record, "available");
+        if (available != null) {
+            if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                return ItemImportRow.rejected(row, "available must be true or false");
+            }
+            item.setAvailable(Boolean.parseBoolean(available));
+        }
+        String requestId = field(record, "requestid");
+        if (requestId != null) {
+            try {
+                item.setRequestId(Long.parseLong(requestId));
+            } catch (NumberFormatException e) {
+                return ItemImportRow.rejected(row, "requestId must be a number");
+            }
+        }
+        return validated(item);
+    }
+
+    private ItemImportRow validated(ItemDto item) {
+        if (item == null) {
+            return ItemImportRow.rejected(row, "item is empty");
+        }
+        if (item.getName() == null || item.getName().isBlank()) {
+            return ItemImportRow.rejected(row, "name is blank");
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            return ItemImportRow.rejected(row, "description is blank");
+        }
+        if (item.getAvailable() == null) {
+            return ItemImportRow.rejected(row, "available is missing");
+        }
+        item.setId(null);
+        return ItemImportRow.accepted(row, item);
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ImportFormatException("csv header is missing");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new ImportFormatException("csv header has no " + column + " column");
+            }
+        }
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int symbol;
+        while ((symbol = reader.read()) != -1) {
+            char current = (char) symbol;
+            if (quoted) {
+                if (current != '"') {
+                    field.append(current);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (current == '"') {
+                quoted = true;
+                empty = false;
+            } else if (current == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                empty = false;
+            } else if (current == '\n' || current == '\r') {
+                if (current == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (!empty || field.length() > 0) {
+                    record.add(field.toString());
+                    return record;
+                }
+            } else {
+                field.append(current);
+                empty = false;
+            }
+        }
+        if (empty && field.length() == 0) {
+            return null;
+        }
+        record.add(field.toString());
+        return record;
+    }
+}
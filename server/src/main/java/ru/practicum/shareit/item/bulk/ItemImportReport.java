@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-row outcome of an item upload: the id of every created item and the reason of every rejected row.
+ * Created rows cost one {@code long} each, so the report stays small next to the upload itself.
+ */
+public class ItemImportReport {
+
+    private long[] ids = new long[1024];
+
+    private final Map<Integer, String> errors = new HashMap<>();
+
+    private int rows;
+
+    private int created;
+
+    public void created(int row, long id) {
+        ensureRow(row);
+        ids[row - 1] = id;
+        created++;
+    }
+
+    public void rejected(int row, String error) {
+        ensureRow(row);
+        errors.put(row, error);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return errors.size();
+    }
+
+    /**
+     * Writes one NDJSON line per row in upload order: {@code {"row":1,"id":7}} or {@code {"row":2,"error":"..."}}.
+     */
+    public void writeTo(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (int row = 1; row <= rows; row++) {
+                generator.writeStartObject();
+                generator.writeNumberField("row", row);
+                String error = errors.get(row);
+                if (error != null) {
+                    generator.writeStringField("error", error);
+                } else {
+                    generator.writeNumberField("id", ids[row - 1]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void ensureRow(int row) {
+        if (row > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(row, ids.length * 2));
+        }
+        rows = Math.max(rows, row);
+    }
+}
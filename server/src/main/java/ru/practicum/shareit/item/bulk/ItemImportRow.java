@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.bulk;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemImportRow {
+
+    private final int row;
+
+    private final ItemDto item;
+
+    private final String error;
+
+    public static ItemImportRow accepted(int row, ItemDto item) {
+        return new ItemImportRow(row, item, null);
+    }
+
+    public static ItemImportRow rejected(int row, String error) {
+        return new ItemImportRow(row, null, error);
+    }
+
+    public boolean isRejected() {
+        return error != null;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the items of an upload while it is being read.
+ * The owner is resolved once per upload; rows are collected into batches, each inserted in its own
+ * transaction with the batch's request ids resolved by one query. The persistence context is cleared
+ * after every batch, so memory does not grow with the upload beyond the per-row report.
+ */
+@Component
+@Slf4j
+public class ItemImporter {
+
+    private final ItemRepository itemRepository;
+
+    private final UserRepository userRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final ItemMapper itemMapper;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemNameSuggester itemNameSuggester;
+
+    private final ItemSearchCache itemSearchCache;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository, UserRepository userRepository,
+                        ItemRequestRepository itemRequestRepository, ItemMapper itemMapper,
+                        ItemSearchEngine itemSearchEngine, ItemNameSuggester itemNameSuggester,
+                        ItemSearchCache itemSearchCache, ObjectMapper objectMapper, EntityManager entityManager,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemMapper = itemMapper;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemNameSuggester = itemNameSuggester;
+        this.itemSearchCache = itemSearchCache;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ItemImportReport importItems(Long userId, ItemImportFormat format, InputStream body) {
+        log.info("importing items of user {} from {}", userId, format);
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("user id " + userId + " not found"));
+        ItemImportReport report = new ItemImportReport();
+        BufferedReader input = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try (ItemImportReader reader = new ItemImportReader(format, input, objectMapper.reader())) {
+            List<ItemImportRow> batch = new ArrayList<>(batchSize);
+            ItemImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.isRejected()) {
+                    report.rejected(row.getRow(), row.getError());
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    insert(owner, batch, report);
+                    batch.clear();
+                }
+            }
+            insert(owner, batch, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("item upload could not be read", e);
+        } finally {
+            if (report.getCreated() > 0) {
+                itemSearchCache.clear();
+            }
+        }
+        log.info("import of user {} done: {} rows, {} created, {} rejected", userId, report.getRows(),
+                report.getCreated(), report.getRejected());
+        return report;
+    }
+
+    private void insert(User owner, List<ItemImportRow> batch, ItemImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Item> items = new ArrayList<>(batch.size());
+        List<ItemImportRow> rows = new ArrayList<>(batch.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, ItemRequest> requests = findRequests(batch);
+            for (ItemImportRow row : batch) {
+                Long requestId = row.getItem().getRequestId();
+                if (requestId != null && !requests.containsKey(requestId)) {
+                    report.rejected(row.getRow(), "request id " + requestId + " not found");
+                    continue;
+                }
+                Item item = itemMapper.toItem(row.getItem(), owner);
+                item.setRequest(requestId != null ? requests.get(requestId) : null);
+                items.add(item);
+                rows.add(row);
+            }
+            itemRepository.saveAll(items);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            report.created(rows.get(i).getRow(), item.getId());
+            itemSearchEngine.index(item);
+            itemNameSuggester.index(item);
+        }
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ItemImportRow> batch) {
+        Set<Long> requestIds = batch.stream()
+                .map(row -> row.getItem().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.comment.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A comment joined with its author's name, read by a JPQL constructor expression.
+ */
+@Value
+public class CommentView {
+
+    Long id;
+
+    Long itemId;
+
+    String text;
+
+    String authorName;
+
+    LocalDateTime created;
+}
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentIncDto;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +20,8 @@ public interface CommentMapper {
     @Mapping(target = "created", source = "comment.created", dateFormat = "YYYY-MM-DDTHH:mm:ss")
     CommentDto toCommentDto(Comment comment, String name);
 
+    CommentDto toCommentDto(CommentView commentView);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "text", source = "commentIncDto.text")
     @Mapping(target = "item", source = "item")
@@ -1,13 +1,23 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
+    String COMMENT_VIEW = "select new ru.practicum.shareit.item.comment.dto.CommentView(" +
+            "c.id, c.item.id, c.text, a.name, c.created) " +
+            "from Comment as c join c.author as a ";
 
-    List<Comment> findAllByItemOwnerId(Long ownerId);
+    @Query(COMMENT_VIEW + "where c.item.id = :itemId order by c.id")
+    List<CommentView> findAllByItemId(@Param("itemId") Long itemId);
+
+    @Query(COMMENT_VIEW + "where c.item.id in :itemIds order by c.id")
+    List<CommentView> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
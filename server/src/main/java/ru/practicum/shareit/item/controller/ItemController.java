@@ -1,15 +1,28 @@
 package ru.practicum.shareit.item.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.bulk.ItemImportReport;
+import ru.practicum.shareit.item.bulk.ItemImporter;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentIncDto;
 import ru.practicum.shareit.item.comment.service.CommentService;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -21,17 +34,37 @@ public class ItemController {
 
     private final CommentService commentService;
 
+    private final ItemImporter itemImporter;
+
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public ItemDto create(@RequestHeader(USER_ID) Long userId, @RequestBody ItemDto itemDto) {
         return itemService.create(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {ItemImportFormat.NDJSON_VALUE, ItemImportFormat.CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> bulkCreate(@RequestHeader(USER_ID) Long userId,
+                                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                            InputStream body) {
+        ItemImportReport report = itemImporter.importItems(userId, ItemImportFormat.of(contentType), body);
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf(ItemImportFormat.NDJSON_VALUE))
+                .body(out -> report.writeTo(objectMapper.getFactory(), out));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(USER_ID) Long userId,
                           @PathVariable Long itemId, @RequestBody ItemDto itemDto) {
         return itemService.update(userId, itemId, itemDto);
     }
 
+    @GetMapping(params = "ids")
+    public List<ItemDto> findAllById(@RequestHeader(value = USER_ID, required = false) Long userId,
+                                     @RequestParam List<Long> ids) {
+        return itemService.findAllById(userId, ids);
+    }
+
     @GetMapping
     public Collection<ItemDto> getUsersItems(@RequestHeader(USER_ID) Long userId,
                                              @RequestParam(defaultValue = "0", required = false) Integer from,
@@ -45,6 +78,15 @@ public class ItemController {
         return itemService.findById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable Long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
     public Collection<ItemDto> searchByText(@RequestParam String text,
                                             @RequestParam(defaultValue = "0", required = false) Integer from,
@@ -52,6 +94,12 @@ public class ItemController {
         return itemService.searchByText(text, from, size);
     }
 
+    @GetMapping("/search/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10", required = false) Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto comment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
                               @RequestBody CommentIncDto commentIncDto) {
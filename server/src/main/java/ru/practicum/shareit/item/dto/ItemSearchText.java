@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemSearchText {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * The columns of an item its owner's list shows, read by a JPQL constructor expression.
+ */
+@Value
+public class ItemView {
+
+    Long id;
+
+    String name;
+
+    String description;
+
+    Boolean available;
+
+    Long requestId;
+}
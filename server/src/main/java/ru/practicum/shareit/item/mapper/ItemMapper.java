@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -14,6 +15,8 @@ public interface ItemMapper {
     @Mapping(target = "requestId", source = "item.request.id")
     ItemDto toItemDto(Item item);
 
+    ItemDto toItemDto(ItemView itemView);
+
     @Mapping(target = "id", source = "itemDto.id")
     @Mapping(target = "name", source = "itemDto.name")
     @Mapping(target = "owner", source = "user")
@@ -1,23 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    Page<Item> findAllByOwnerId(Long userId, PageRequest pageRequest);
+    @Query(value = "select new ru.practicum.shareit.item.dto.ItemView(" +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Item as i " +
+            "where i.owner.id = :userId " +
+            "order by i.id",
+            countQuery = "select count(i) from Item as i where i.owner.id = :userId")
+    Page<ItemView> findOwnerItems(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("from Item as it " +
+    @Query("select it.id from Item as it " +
             "where " +
             "it.available = true " +
             "and " +
-            "(upper(it.name) like upper(concat('%',?1,'%')) or upper(it.description) like upper(concat('%',?1,'%')))")
-    Page<Item> searchByText(String text, PageRequest pageRequest);
+            "(upper(it.name) like upper(concat('%',?1,'%')) or upper(it.description) like upper(concat('%',?1,'%'))) " +
+            "order by sign(locate(upper(?1), upper(it.name))) desc, it.id")
+    List<Long> searchIdsByText(String text, Pageable pageable);
+
+    @Query(value = "select it.id from items as it " +
+            "where it.available " +
+            "and (it.name ilike concat('%', :text, '%') or it.description ilike concat('%', :text, '%')) " +
+            "order by (it.name ilike concat('%', :text, '%')) desc, it.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> searchIdsByTextNative(@Param("text") String text,
+                                     @Param("limit") int limit,
+                                     @Param("offset") long offset);
+
+    Stream<ItemSearchText> findAllByAvailableTrueOrderByIdAsc();
 
     List<Item> findAllByRequestIdIn(List<Long> itemRequests);
 
@@ -0,0 +1,283 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over the name and description of available items.
+ * A query is answered by intersecting the id sets of its trigrams and checking each candidate
+ * for the actual substring, so results match the case-insensitive "contains" semantics of the
+ * database search. Matches are ranked by term frequency with name occurrences weighted above
+ * description ones, ties broken by id. Queries shorter than a trigram scan the documents.
+ * The index is built once all singletons exist, before the web server starts accepting requests.
+ * A rebuild fills a fresh index and swaps it in; items written while it ran keep their live entries.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int NAME_WEIGHT = 3;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingInt((Hit hit) -> hit.score).reversed()
+            .thenComparing(hit -> hit.id);
+
+    private final ItemRepository itemRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+
+    private Set<Long> writtenDuringRebuild;
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index rebuilt = new Index();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ItemSearchText> items = itemRepository.findAllByAvailableTrueOrderByIdAsc()) {
+                    items.forEach(item -> rebuilt.put(item.getId(),
+                            new Document(normalize(item.getName()), normalize(item.getDescription()))));
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                for (Long id : writtenDuringRebuild) {
+                    rebuilt.remove(id);
+                    Document document = index.documents.get(id);
+                    if (document != null) {
+                        rebuilt.put(id, document);
+                    }
+                }
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writtenDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("item search index built; size: {}", size());
+    }
+
+    @Override
+    public void index(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            put(item.getId(), item.getName(), item.getDescription());
+        } else {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        String query = normalize(text);
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> idSets = new ArrayList<>();
+            for (String gram : grams(query)) {
+                NavigableSet<Long> ids = index.postings.get(gram);
+                if (ids == null) {
+                    return new ArrayList<>();
+                }
+                idSets.add(ids);
+            }
+            idSets.sort(Comparator.comparingInt(Set::size));
+            Collection<Long> candidates = idSets.isEmpty() ? index.documents.keySet() : idSets.get(0);
+            for (Long id : candidates) {
+                if (!containsInAll(idSets, id)) {
+                    continue;
+                }
+                int score = index.documents.get(id).score(query);
+                if (score == 0) {
+                    continue;
+                }
+                top.add(new Hit(id, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(RANKING);
+        List<Long> result = new ArrayList<>();
+        for (int i = (int) pageable.getOffset(); i < hits.size(); i++) {
+            result.add(hits.get(i).id);
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long id, String name, String description) {
+        Document document = new Document(normalize(name), normalize(description));
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+            index.put(id, document);
+            markWritten(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+            markWritten(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markWritten(Long id) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(id);
+        }
+    }
+
+    private static boolean containsInAll(List<NavigableSet<Long>> idSets, Long id) {
+        for (int i = 1; i < idSets.size(); i++) {
+            if (!idSets.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int occurrences(String text, String query) {
+        if (query.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Index {
+
+        private final NavigableMap<Long, Document> documents = new TreeMap<>();
+
+        private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+
+        private void put(Long id, Document document) {
+            documents.put(id, document);
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(id);
+            }
+        }
+
+        private void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String gram : document.grams()) {
+                NavigableSet<Long> ids = postings.get(gram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static final class Hit {
+
+        private final Long id;
+
+        private final int score;
+
+        private Hit(Long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private static final class Document {
+
+        private final String name;
+
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private int score(String query) {
+            return NAME_WEIGHT * occurrences(name, query) + occurrences(description, query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = InvertedIndexItemSearchEngine.grams(name);
+            grams.addAll(InvertedIndexItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Prefix trie over the name tokens of available items.
+ * Every node caches its most frequent completions; a change of a token only drops the caches
+ * along that token's path, so suggestions for untouched prefixes are served straight from the cache.
+ * Suggestions share a read lock; readers that find a dropped cache recompute it and publish it
+ * through a volatile field, which is safe because the trie itself only changes under the write lock.
+ * Like {@link InvertedIndexItemSearchEngine}, the trie is built before the web server starts accepting
+ * requests, and a rebuild fills a fresh trie and swaps it in, keeping the live entries of items
+ * written while it ran.
+ */
+@Component
+@Slf4j
+public class ItemNameSuggester implements SmartInitializingSingleton {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<Node> POPULARITY = Comparator
+            .comparingInt((Node node) -> node.count).reversed()
+            .thenComparing(node -> node.token);
+
+    private final ItemRepository itemRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+
+    private Set<Long> writtenDuringRebuild;
+
+    public ItemNameSuggester(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Trie rebuilt = new Trie();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ItemSearchText> items = itemRepository.findAllByAvailableTrueOrderByIdAsc()) {
+                    items.forEach(item -> rebuilt.put(item.getId(), tokens(item.getName())));
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                for (Long id : writtenDuringRebuild) {
+                    rebuilt.put(id, trie.itemTokens.getOrDefault(id, Collections.emptySet()));
+                }
+                trie = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writtenDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("item name suggester built; items: {}", size());
+    }
+
+    public void index(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            put(item.getId(), item.getName());
+        } else {
+            put(item.getId(), null);
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        List<String> suggestions = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = trie.root;
+            for (char symbol : prefix.toLowerCase(Locale.ROOT).toCharArray()) {
+                node = node.children.get(symbol);
+                if (node == null) {
+                    return suggestions;
+                }
+            }
+            for (Node completion : node.top()) {
+                if (suggestions.size() == Math.min(size, MAX_SUGGESTIONS)) {
+                    break;
+                }
+                suggestions.add(completion.token);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.itemTokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long itemId, String name) {
+        Set<String> tokens = tokens(name);
+        lock.writeLock().lock();
+        try {
+            trie.put(itemId, tokens);
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> tokens(String name) {
+        Set<String> tokens = new HashSet<>();
+        if (name == null) {
+            return tokens;
+        }
+        for (String token : name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Trie {
+
+        private final Node root = new Node(null, "");
+
+        private final Map<Long, Set<String>> itemTokens = new HashMap<>();
+
+        private void put(Long itemId, Set<String> newTokens) {
+            Set<String> oldTokens = itemTokens.getOrDefault(itemId, Collections.emptySet());
+            for (String token : oldTokens) {
+                if (!newTokens.contains(token)) {
+                    change(token, -1);
+                }
+            }
+            for (String token : newTokens) {
+                if (!oldTokens.contains(token)) {
+                    change(token, 1);
+                }
+            }
+            if (newTokens.isEmpty()) {
+                itemTokens.remove(itemId);
+            } else {
+                itemTokens.put(itemId, newTokens);
+            }
+        }
+
+        private void change(String token, int delta) {
+            Node node = root;
+            node.top = null;
+            for (int i = 0; i < token.length(); i++) {
+                Node parent = node;
+                char symbol = token.charAt(i);
+                String path = token.substring(0, i + 1);
+                node = parent.children.computeIfAbsent(symbol, key -> new Node(parent, path));
+                node.top = null;
+            }
+            node.count += delta;
+            while (node.parent != null && node.count == 0 && node.children.isEmpty()) {
+                node.parent.children.remove(node.token.charAt(node.token.length() - 1));
+                node = node.parent;
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+
+        private final String token;
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        private int count;
+
+        private volatile List<Node> top;
+
+        private Node(Node parent, String token) {
+            this.parent = parent;
+            this.token = token;
+        }
+
+        private List<Node> top() {
+            List<Node> cached = top;
+            if (cached != null) {
+                return cached;
+            }
+            List<Node> candidates = new ArrayList<>();
+            if (count > 0) {
+                candidates.add(this);
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(child.top());
+            }
+            candidates.sort(POPULARITY);
+            cached = candidates.size() > MAX_SUGGESTIONS
+                    ? List.copyOf(candidates.subList(0, MAX_SUGGESTIONS))
+                    : List.copyOf(candidates);
+            top = cached;
+            return cached;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of search result pages keyed by lower-cased text and page.
+ * Pages are kept as immutable snapshots stamped with the write version they were computed at, and every
+ * read hands out fresh DTOs. A write bumps the version and logs the item's searchable fields before and
+ * after it; a read drops its page if a write logged since the page's version matches the page's text,
+ * so writes never scan the keys and a page computed concurrently with a write cannot outlive it.
+ * A write is logged before its version is published, so a reader that sees a version also sees its write.
+ * Pages older than the retained part of the log are treated as stale.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+
+    private static final int MAX_LOGGED_WRITES = 1024;
+
+    private final Cache<Key, Page> cache;
+
+    private final Counter invalidations;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final ConcurrentNavigableMap<Long, Write> writes = new ConcurrentSkipListMap<>();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl-seconds:60}") long ttlSeconds,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("shareit.search.cache.invalidations")
+                .description("search result pages dropped by item writes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public List<ItemDto> get(String text, Integer from, Integer size, Supplier<List<ItemDto>> search) {
+        Key key = new Key(text.toLowerCase(Locale.ROOT), from, size);
+        Page page = cache.getIfPresent(key);
+        if (page != null) {
+            if (isCurrent(page, key.text)) {
+                return page.toItemDtos();
+            }
+            cache.asMap().remove(key, page);
+            invalidations.increment();
+        }
+        long searchVersion = version.get();
+        List<ItemDto> itemDtos = search.get();
+        page = new Page(searchVersion, itemDtos.stream()
+                .map(CachedItem::of)
+                .collect(Collectors.toUnmodifiableList()));
+        cache.put(key, page);
+        return page.toItemDtos();
+    }
+
+    public void evict(Snapshot before, Item after) {
+        Snapshot current = Snapshot.of(after);
+        if (current.equals(before)) {
+            return;
+        }
+        record(new Write(before, current));
+        log.info("search cache: pages matching item {} marked stale", after.getId());
+    }
+
+    public void clear() {
+        record(Write.ALL);
+        long dropped = cache.estimatedSize();
+        cache.invalidateAll();
+        invalidations.increment(dropped);
+        log.info("search cache: all pages dropped after a bulk write");
+    }
+
+    private synchronized void record(Write write) {
+        long next = version.get() + 1;
+        writes.put(next, write);
+        version.set(next);
+        while (writes.size() > MAX_LOGGED_WRITES) {
+            writes.pollFirstEntry();
+        }
+    }
+
+    private boolean isCurrent(Page page, String text) {
+        if (page.version == version.get()) {
+            return true;
+        }
+        ConcurrentNavigableMap<Long, Write> since = writes.tailMap(page.version, false);
+        if (!since.isEmpty() && since.firstKey() > page.version + 1) {
+            return false;
+        }
+        for (Write write : since.values()) {
+            if (write.matches(text)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+
+        private final String text;
+
+        private final Integer from;
+
+        private final Integer size;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Page {
+
+        private final long version;
+
+        private final List<CachedItem> items;
+
+        private List<ItemDto> toItemDtos() {
+            List<ItemDto> itemDtos = new ArrayList<>(items.size());
+            for (CachedItem item : items) {
+                itemDtos.add(item.toItemDto());
+            }
+            return itemDtos;
+        }
+    }
+
+    @lombok.Value
+    private static class CachedItem {
+
+        Long id;
+
+        String name;
+
+        String description;
+
+        Boolean available;
+
+        Long requestId;
+
+        private static CachedItem of(ItemDto itemDto) {
+            return new CachedItem(itemDto.getId(), itemDto.getName(), itemDto.getDescription(),
+                    itemDto.getAvailable(), itemDto.getRequestId());
+        }
+
+        private ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Write {
+
+        private static final Write ALL = new Write(null, null);
+
+        private final Snapshot before;
+
+        private final Snapshot after;
+
+        private boolean matches(String text) {
+            if (this == ALL) {
+                return true;
+            }
+            return (before != null && before.matches(text)) || after.matches(text);
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static final class Snapshot {
+
+        private final String name;
+
+        private final String description;
+
+        private final boolean available;
+
+        public static Snapshot of(Item item) {
+            return new Snapshot(normalize(item.getName()), normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        private boolean matches(String text) {
+            return available && (name.contains(text) || description.contains(text));
+        }
+
+        private static String normalize(String text) {
+            return text == null ? "" : text.toLowerCase(Locale.ROOT);
+        }
+    }
+}
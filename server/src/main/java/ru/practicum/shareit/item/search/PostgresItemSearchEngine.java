@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Native ILIKE search served by the pg_trgm indexes of the postgresql-only V3 migration.
+ * On any other database it falls back to the portable JPQL search.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    private final boolean postgres;
+
+    public PostgresItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${spring.datasource.url}") String datasourceUrl) {
+        this.itemRepository = itemRepository;
+        this.postgres = DatabaseDriver.fromJdbcUrl(datasourceUrl) == DatabaseDriver.POSTGRESQL;
+        if (!postgres) {
+            log.warn("datasource is not postgresql, item search falls back to jpql");
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        if (!postgres) {
+            return itemRepository.searchIdsByText(text, pageable);
+        }
+        return itemRepository.searchIdsByTextNative(text, pageable.getPageSize(), pageable.getOffset());
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
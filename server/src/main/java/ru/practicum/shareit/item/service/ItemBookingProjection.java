@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingSummary;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read model of the last and next APPROVED booking of every item.
+ * Entries are loaded on first use with one grouped query per side and kept up to date on approval;
+ * an entry whose next booking has already started is stale and gets reloaded on the following read.
+ * The model is local to this process and only sees approvals made through it, so with several server
+ * instances an approval elsewhere shows up here once the entry expires: entries are kept in a bounded
+ * cache and dropped {@code shareit.items.booking-marks.ttl-seconds} after they were last written.
+ */
+@Component
+@Slf4j
+public class ItemBookingProjection {
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, Marks> marks;
+
+    private final AtomicLong version = new AtomicLong();
+
+    public ItemBookingProjection(BookingRepository bookingRepository,
+                                 @Value("${shareit.items.booking-marks.max-size:10000}") long maxSize,
+                                 @Value("${shareit.items.booking-marks.ttl-seconds:60}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.marks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Marks get(Long itemId) {
+        return get(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, Marks> get(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Marks> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Marks itemMarks = marks.getIfPresent(itemId);
+            if (itemMarks != null && itemMarks.isCurrent(now)) {
+                result.put(itemId, itemMarks);
+            } else {
+                missing.add(itemId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing, now));
+        }
+        return result;
+    }
+
+    public void approved(Booking booking) {
+        version.incrementAndGet();
+        Mark mark = new Mark(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        marks.asMap().computeIfPresent(booking.getItem().getId(),
+                (itemId, itemMarks) -> itemMarks.offer(mark, LocalDateTime.now()));
+    }
+
+    private Map<Long, Marks> load(List<Long> itemIds, LocalDateTime now) {
+        long loadVersion = version.get();
+        Map<Long, Mark> lastMarks = toMarks(bookingRepository
+                .findLastBookings(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, Mark> nextMarks = toMarks(bookingRepository
+                .findNextBookings(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, Marks> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, new Marks(lastMarks.get(itemId), nextMarks.get(itemId)));
+        }
+        if (version.get() == loadVersion) {
+            marks.putAll(loaded);
+        }
+        log.info("booking marks loaded for {} items", itemIds.size());
+        return loaded;
+    }
+
+    private Map<Long, Mark> toMarks(List<BookingSummary> summaries) {
+        Map<Long, Mark> result = new HashMap<>();
+        for (BookingSummary summary : summaries) {
+            result.putIfAbsent(summary.getItemId(), new Mark(summary.getId(), summary.getBookerId(),
+                    summary.getStart(), summary.getEnd()));
+        }
+        return result;
+    }
+
+    @lombok.Value
+    public static class Marks {
+
+        Mark last;
+
+        Mark next;
+
+        private boolean isCurrent(LocalDateTime now) {
+            return next == null || next.getStart().isAfter(now);
+        }
+
+        private Marks offer(Mark mark, LocalDateTime now) {
+            if (mark.getStart().isAfter(now)) {
+                return next == null || mark.getStart().isBefore(next.getStart()) ? new Marks(last, mark) : this;
+            }
+            return last == null || mark.getStart().isAfter(last.getStart()) ? new Marks(mark, next) : this;
+        }
+    }
+
+    @lombok.Value
+    public static class Mark {
+
+        Long id;
+
+        Long bookerId;
+
+        LocalDateTime start;
+
+        LocalDateTime end;
+    }
+}
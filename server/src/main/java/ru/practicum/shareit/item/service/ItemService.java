@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
@@ -12,7 +15,13 @@ public interface ItemService {
 
     ItemDto findById(Long itemId, Long userId);
 
+    List<ItemDto> findAllById(Long userId, List<Long> itemIds);
+
     ItemDto update(Long userId, Long itemId, ItemDto itemDto);
 
     Collection<ItemDto> searchByText(String text, Integer from, Integer size);
+
+    List<String> suggest(String prefix, Integer size);
+
+    List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
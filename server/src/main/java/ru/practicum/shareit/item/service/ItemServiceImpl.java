@@ -4,23 +4,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.LastBookingDto;
+import ru.practicum.shareit.booking.dto.NextBookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DateTimeException;
 import ru.practicum.shareit.exception.IncorrectUserOperationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.PaginationException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
-import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -29,6 +36,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -39,8 +47,6 @@ public class ItemServiceImpl implements ItemService {
 
     private final UserRepository userRepository;
 
-    private final BookingMapper bookingMapper;
-
     private final ItemMapper itemMapper;
 
     private final BookingRepository bookingRepository;
@@ -51,6 +57,14 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemBookingProjection itemBookingProjection;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemNameSuggester itemNameSuggester;
+
+    private final ItemSearchCache itemSearchCache;
+
 
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) {
@@ -64,12 +78,16 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
+        itemNameSuggester.index(item);
+        itemSearchCache.evict(null, item);
         ItemDto toItemDto = itemMapper.toItemDto(item);
         log.info("item {} created", toItemDto.getId());
         return toItemDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemDto> getUsersItems(Long userId, Integer from, Integer size) {
         log.info("send user's item list");
         if (!userRepository.existsById(userId)) {
@@ -78,43 +96,16 @@ public class ItemServiceImpl implements ItemService {
         if (from < 0 || size < 1) {
             throw new PaginationException("wrong pagination params");
         }
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.Direction.ASC, "id");
-        Page<Item> items = itemRepository.findAllByOwnerId(userId, pageRequest);
-        Collection<Booking> lastBookings = bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(userId,
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by("start").descending());
-        Collection<Booking> nextBookings = bookingRepository
-                .findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(userId,
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by("start").ascending());
-        Collection<Comment> comments = commentRepository.findAllByItemOwnerId(userId);
+        Page<ItemView> items = itemRepository.findOwnerItems(userId, PageRequest.of(from, size));
+        List<Long> itemIds = items.map(ItemView::getId).getContent();
+        Map<Long, ItemBookingProjection.Marks> bookingMarks = itemBookingProjection.get(itemIds);
+        Map<Long, List<CommentDto>> comments = groupCommentsByItemId(itemIds);
 
         Collection<ItemDto> resultList = new ArrayList<>();
-        for (Item item : items) {
-            List<CommentDto> itemComments = comments.stream()
-                    .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                    .map(comment -> commentMapper.toCommentDto(comment, comment.getAuthor().getName()))
-                    .collect(Collectors.toList());
-
-            Optional<Booking> lastBooking = lastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
-            Optional<Booking> nextBooking = nextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
+        for (ItemView item : items) {
             ItemDto itemDto = itemMapper.toItemDto(item);
-            itemDto.setComments(itemComments);
-
-            lastBooking.ifPresent(booking -> itemDto.setLastBooking(bookingMapper
-                    .toLastBookingDto(booking, booking.getBooker().getId())));
-
-            nextBooking.ifPresent(booking -> itemDto.setNextBooking(bookingMapper
-                    .toNextBookingDto(booking, booking.getBooker().getId())));
+            itemDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            setBookingMarks(itemDto, bookingMarks.get(item.getId()));
 
             resultList.add(itemDto);
         }
@@ -123,56 +114,58 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemDto findById(Long userId, Long itemId) {
         log.info("search item {}", itemId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("item not found"));
         if (Optional.ofNullable(userId).isPresent() && (item.getOwner().getId().equals(userId))) {
-            Collection<Booking> lastBookings = bookingRepository
-                    .findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(userId,
-                            BookingStatus.APPROVED,
-                            LocalDateTime.now(),
-                            Sort.by("start").descending());
-            Collection<Booking> nextBookings = bookingRepository
-                    .findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(userId,
-                            BookingStatus.APPROVED,
-                            LocalDateTime.now(),
-                            Sort.by("start").ascending());
-
-
             ItemDto itemDto = itemMapper.toItemDto(item);
+            setBookingMarks(itemDto, itemBookingProjection.get(item.getId()));
 
-            Optional<Booking> lastBooking = lastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
-            Optional<Booking> nextBooking = nextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .findFirst();
-
-            lastBooking.ifPresent(booking -> itemDto.setLastBooking(bookingMapper
-                    .toLastBookingDto(booking, booking.getBooker().getId())));
+            List<CommentView> comments = commentRepository.findAllByItemId(itemDto.getId());
 
-            nextBooking.ifPresent(booking -> itemDto.setNextBooking(bookingMapper
-                    .toNextBookingDto(booking, booking.getBooker().getId())));
-
-            List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId());
-
-            itemDto.setComments(comments.stream().map(comment ->
-                    commentMapper.toCommentDto(comment, comment.getAuthor().getName())).collect(Collectors.toList()));
+            itemDto.setComments(comments.stream().map(commentMapper::toCommentDto).collect(Collectors.toList()));
 
             log.info("item {} found", itemDto.getId());
             return itemDto;
         }
         ItemDto itemDto = itemMapper.toItemDto(item);
-        List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId());
-        itemDto.setComments(comments.stream().map(comment ->
-                commentMapper.toCommentDto(comment, comment.getAuthor().getName())).collect(Collectors.toList()));
+        List<CommentView> comments = commentRepository.findAllByItemId(itemDto.getId());
+        itemDto.setComments(comments.stream().map(commentMapper::toCommentDto).collect(Collectors.toList()));
 
         log.info("item {} found", itemDto.getId());
         return itemDto;
     }
 
+    @Override
+    public List<ItemDto> findAllById(Long userId, List<Long> itemIds) {
+        log.info("search items {}", itemIds);
+        Map<Long, Item> items = itemRepository.findAllById(new LinkedHashSet<>(itemIds)).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        List<Long> foundIds = itemIds.stream()
+                .distinct()
+                .filter(items::containsKey)
+                .collect(Collectors.toList());
+        List<Long> ownedIds = foundIds.stream()
+                .filter(itemId -> items.get(itemId).getOwner().getId().equals(userId))
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingProjection.Marks> bookingMarks = ownedIds.isEmpty()
+                ? new HashMap<>()
+                : itemBookingProjection.get(ownedIds);
+        Map<Long, List<CommentDto>> comments = groupCommentsByItemId(foundIds);
+
+        List<ItemDto> resultList = new ArrayList<>();
+        for (Long itemId : foundIds) {
+            ItemDto itemDto = itemMapper.toItemDto(items.get(itemId));
+            itemDto.setComments(comments.getOrDefault(itemId, new ArrayList<>()));
+            setBookingMarks(itemDto, bookingMarks.get(itemId));
+            resultList.add(itemDto);
+        }
+        log.info("found {} items", resultList.size());
+        return resultList;
+    }
+
     @Override
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
         log.info("updating item id {}", itemId);
@@ -187,6 +180,7 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(userId)) {
             throw new IncorrectUserOperationException("incorrect user operation");
         }
+        ItemSearchCache.Snapshot before = ItemSearchCache.Snapshot.of(item);
 
 
         if (Optional.ofNullable(itemDto.getName()).isPresent()) {
@@ -201,6 +195,9 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
+        itemNameSuggester.index(item);
+        itemSearchCache.evict(before, item);
         ItemDto updatedItemDto = itemMapper.toItemDto(item);
         log.info("item {} updated", itemDto.getId());
         return updatedItemDto;
@@ -216,13 +213,99 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.Direction.ASC, "id");
-        Collection<ItemDto> itemDtos = itemRepository
-                .searchByText(text, pageRequest)
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+        Collection<ItemDto> itemDtos = itemSearchCache.get(text, from, size, () -> search(text, from, size));
         log.info("found {} items", itemDtos.size());
         return itemDtos;
     }
+
+    @Override
+    public List<String> suggest(String prefix, Integer size) {
+        if (size < 1) {
+            throw new PaginationException("wrong pagination params");
+        }
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemNameSuggester.suggest(prefix.strip(), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("search free slots of item {} from {} to {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new DateTimeException("date time exception");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("item not found");
+        }
+        List<FreeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        try (Stream<BookingPeriod> periods = bookingRepository
+                .findAllByItemIdAndBookingStatusInAndEndIsAfterAndStartIsBeforeOrderByStartAsc(itemId,
+                        BookingStatus.BLOCKING, from, to)) {
+            Iterator<BookingPeriod> iterator = periods.iterator();
+            while (iterator.hasNext()) {
+                BookingPeriod period = iterator.next();
+                if (period.getStart().isAfter(cursor)) {
+                    freeSlots.add(new FreeSlotDto(cursor, period.getStart()));
+                }
+                if (period.getEnd().isAfter(cursor)) {
+                    cursor = period.getEnd();
+                }
+            }
+        }
+        if (cursor.isBefore(to)) {
+            freeSlots.add(new FreeSlotDto(cursor, to));
+        }
+        log.info("found {} free slots", freeSlots.size());
+        return freeSlots;
+    }
+
+    private List<ItemDto> search(String text, Integer from, Integer size) {
+        List<Long> itemIds = itemSearchEngine.search(text, PageRequest.of(from, size));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<CommentDto>> groupCommentsByItemId(List<Long> itemIds) {
+        Map<Long, List<CommentDto>> comments = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return comments;
+        }
+        for (CommentView comment : commentRepository.findAllByItemIdIn(itemIds)) {
+            comments.computeIfAbsent(comment.getItemId(), itemId -> new ArrayList<>())
+                    .add(commentMapper.toCommentDto(comment));
+        }
+        return comments;
+    }
+
+    private void setBookingMarks(ItemDto itemDto, ItemBookingProjection.Marks marks) {
+        if (marks == null) {
+            return;
+        }
+        ItemBookingProjection.Mark last = marks.getLast();
+        if (last != null) {
+            itemDto.setLastBooking(LastBookingDto.builder()
+                    .id(last.getId())
+                    .bookerId(last.getBookerId())
+                    .start(last.getStart())
+                    .end(last.getEnd())
+                    .build());
+        }
+        ItemBookingProjection.Mark next = marks.getNext();
+        if (next != null) {
+            itemDto.setNextBooking(NextBookingDto.builder()
+                    .id(next.getId())
+                    .bookerId(next.getBookerId())
+                    .start(next.getStart())
+                    .end(next.getEnd())
+                    .build());
+        }
+    }
 }
@@ -7,6 +7,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -30,6 +31,11 @@ public class UserController {
         userService.delete(id);
     }
 
+    @GetMapping(params = "ids")
+    public List<UserDto> findAllById(@RequestParam List<Long> ids) {
+        return userService.findAllById(ids);
+    }
+
     @GetMapping
     public Collection<UserDto> getAll() {
         return userService.getAll();
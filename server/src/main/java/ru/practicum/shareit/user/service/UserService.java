@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface UserService {
 
@@ -12,6 +13,8 @@ public interface UserService {
 
     UserDto findById(Long id);
 
+    List<UserDto> findAllById(List<Long> ids);
+
     UserDto update(Long id, UserDto userDto);
 
     void delete(Long id);
@@ -11,6 +11,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -52,6 +56,21 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(user);
     }
 
+    @Override
+    public List<UserDto> findAllById(List<Long> ids) {
+        log.info("search users {}", ids);
+        Map<Long, User> users = userRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        List<UserDto> userDtos = ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::toUserDto)
+                .collect(Collectors.toList());
+        log.info("found {} users", userDtos.size());
+        return userDtos;
+    }
+
     @Override
     public UserDto update(Long id, UserDto userDto) {
         log.info("update user id {}", id);
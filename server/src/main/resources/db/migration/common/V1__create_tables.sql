@@ -48,4 +48,4 @@ CREATE TABLE IF NOT EXISTS comments
     create_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-    );
\ No newline at end of file
+    );
@@ -0,0 +1,24 @@
+-- BookingRepository.findBookerBookings: bookings of a booker newest first, keyset on (start_time, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+
+-- BookingRepository.findOwnerBookings (joined through idx_items_owner),
+-- findLastBookings, findNextBookings and the free-slot lookups by item and status
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_time);
+
+-- BookingRepository.findTopByItemIdAndBookerIdAndEndIsBeforeAndBookingStatusIs: comment eligibility check
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_end ON bookings (item_id, booker_id, end_time);
+
+-- ItemRepository.findAllByOwnerId ordered by id and the owner join of findOwnerBookings
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+-- ItemRepository.findAllByRequestId and findAllByRequestIdIn
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- CommentRepository.findAllByItemId and findAllByItemIdIn
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+-- ItemRequestRepository.findAllByRequesterIdOrderByCreatedDesc
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, create_date DESC);
+
+-- ItemRequestRepository.findAllByRequesterIdIsNot paged by create_date desc
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (create_date DESC);
@@ -0,0 +1,13 @@
+-- Pooled (pooled-lo) sequences let Hibernate assign ids without a round-trip per insert,
+-- which is what allows JDBC batching. H2 databases are created empty, so the sequences start at 1;
+-- the identity defaults stay in place but are never used since Hibernate always supplies the id.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,51 @@
+-- Two WAITING or APPROVED bookings of one item may not overlap. The constraint is the guarantee
+-- across server instances; the in-memory interval index only rejects the obvious cases early.
+-- Ranges are half-open, so a booking may start exactly when the previous one ends.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Nothing enforced this before, so existing conflicts are resolved first. Bookings are kept in order
+-- of precedence, APPROVED before WAITING and then the one made first, and every booking that overlaps
+-- one already kept is REJECTED. The rejected ids are reported in the migration log.
+DO
+$$
+    DECLARE
+        candidate RECORD;
+        rejected  BIGINT[] := '{}';
+    BEGIN
+        FOR candidate IN
+            SELECT b.id, b.item_id, b.start_time, b.end_time, b.status
+            FROM bookings b
+            WHERE b.status IN ('WAITING', 'APPROVED')
+              AND EXISTS(SELECT 1
+                         FROM bookings o
+                         WHERE o.item_id = b.item_id
+                           AND o.id <> b.id
+                           AND o.status IN ('WAITING', 'APPROVED')
+                           AND tsrange(o.start_time, o.end_time) && tsrange(b.start_time, b.end_time))
+            ORDER BY b.status = 'APPROVED' DESC, b.id
+            LOOP
+                IF EXISTS(SELECT 1
+                          FROM bookings o
+                          WHERE o.item_id = candidate.item_id
+                            AND o.id <> candidate.id
+                            AND o.status IN ('WAITING', 'APPROVED')
+                            AND (o.status = 'APPROVED' AND candidate.status = 'WAITING'
+                              OR o.status = candidate.status AND o.id < candidate.id)
+                            AND tsrange(o.start_time, o.end_time)
+                              && tsrange(candidate.start_time, candidate.end_time)) THEN
+                    UPDATE bookings SET status = 'REJECTED' WHERE id = candidate.id;
+                    rejected := rejected || candidate.id;
+                END IF;
+            END LOOP;
+        IF cardinality(rejected) > 0 THEN
+            RAISE NOTICE 'Rejected % overlapping bookings before adding bookings_no_overlap: %',
+                cardinality(rejected), rejected;
+        END IF;
+    END
+$$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,286 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks on a real PostgreSQL that the hot repository methods are planned on the indexes of the V2 migration,
+ * or on the partial index behind the V5 overlap constraint where that one fits the blocking statuses as well.
+ * Each method is called for real; the statement Hibernate sends is recorded at the JDBC level together with
+ * its bound parameters and explained with the same parameters. The tables are filled with enough rows
+ * and analyzed first, so the planner weighs the indexes against sequential scans as it would in production.
+ * The database is {@code SHAREIT_TEST_POSTGRES_URL} if set, otherwise a throwaway PostgreSQL container of the
+ * version in docker-compose. Without Docker the test is skipped locally, but fails when {@code CI} is set,
+ * so the build server cannot pass it by skipping it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("postgresAvailable")
+public class QueryIndexTest {
+
+    private static final String POSTGRES_URL = System.getenv("SHAREIT_TEST_POSTGRES_URL");
+
+    private static PostgreSQLContainer<?> container;
+
+    private static final long BASE = 1_000_000;
+
+    private static final int USERS = 1_000;
+
+    private static final int REQUESTS = 5_000;
+
+    private static final int ITEMS = 10_000;
+
+    private static final int BOOKINGS = 50_000;
+
+    private static final int COMMENTS = 20_000;
+
+    private static final int REJECTED_ON_FIRST_ITEM = 2_000;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    static boolean postgresAvailable() {
+        return POSTGRES_URL != null || System.getenv("CI") != null
+                || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        if (POSTGRES_URL != null) {
+            registry.add("spring.datasource.url", () -> POSTGRES_URL);
+            registry.add("spring.datasource.username", () -> System.getenv("SHAREIT_TEST_POSTGRES_USER"));
+            registry.add("spring.datasource.password", () -> System.getenv("SHAREIT_TEST_POSTGRES_PASSWORD"));
+            return;
+        }
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16.1");
+            container.start();
+        }
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @BeforeEach
+    void fillTables() {
+        jdbcTemplate.update("insert into users (id, name, email) " +
+                "select ? + g, 'user ' || g, 'user' || g || '@index.test' from generate_series(1, ?) g", BASE, USERS);
+        jdbcTemplate.update("insert into requests (id, description, requester_id, create_date) " +
+                "select ? + g, 'request ' || g, ? + 1 + g % ?, timestamp '2023-01-01' + g * interval '1 minute' " +
+                "from generate_series(1, ?) g", BASE, BASE, USERS, REQUESTS);
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id, request_id) " +
+                "select ? + g, 'item ' || g, 'description ' || g, true, ? + 1 + g % ?, " +
+                "case when g % 2 = 0 then ? + 1 + g % ? end " +
+                "from generate_series(1, ?) g", BASE, BASE, USERS, BASE, REQUESTS, ITEMS);
+        jdbcTemplate.update("insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                "select ? + g, timestamp '2023-01-01' + g * interval '1 hour', " +
+                "timestamp '2023-01-01' + g * interval '1 hour' + interval '30 minutes', ? + 1 + g % ?, " +
+                "? + 1 + (g / ?) % ?, (array['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + g % 4] " +
+                "from generate_series(1, ?) g", BASE, BASE, ITEMS, BASE, ITEMS / USERS, USERS, BOOKINGS);
+        jdbcTemplate.update("insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                "select ? + g, timestamp '2026-02-01' + g * interval '1 hour', " +
+                "timestamp '2026-02-01' + g * interval '1 hour' + interval '30 minutes', ?, ? + 1 + g % ?, " +
+                "'REJECTED' from generate_series(1, ?) g",
+                BASE + BOOKINGS, BASE + 1, BASE, USERS, REJECTED_ON_FIRST_ITEM);
+        jdbcTemplate.update("insert into comments (id, text, item_id, author_id, create_date) " +
+                "select ? + g, 'comment ' || g, ? + 1 + g % ?, ? + 1 + g % ?, " +
+                "timestamp '2023-01-01' + g * interval '1 minute' " +
+                "from generate_series(1, ?) g", BASE, BASE, ITEMS, BASE, USERS, COMMENTS);
+        jdbcTemplate.execute("analyze users, requests, items, bookings, comments");
+    }
+
+    static Stream<Arguments> repositoryMethods() {
+        return Stream.of(
+                call("BookingRepository.findBookerBookings", "idx_bookings_booker_start",
+                        test -> test.bookingRepository.findBookerBookings(BASE + 1, State.ALL, NOW,
+                                null, null, PageRequest.of(0, 10))),
+                call("BookingRepository.findBookerBookings after cursor", "idx_bookings_booker_start",
+                        test -> test.bookingRepository.findBookerBookings(BASE + 1, State.ALL, NOW,
+                                NOW.minusYears(1), BASE + 100, PageRequest.of(0, 10))),
+                call("BookingRepository.findOwnerBookings", "idx_items_owner",
+                        test -> test.bookingRepository.findOwnerBookings(BASE + 1, State.ALL, NOW,
+                                null, null, PageRequest.of(0, 10))),
+                call("BookingRepository.findLastBookings", "idx_bookings_item_status_start",
+                        test -> test.bookingRepository.findLastBookings(List.of(BASE + 1, BASE + 2, BASE + 3),
+                                BookingStatus.APPROVED, NOW)),
+                call("BookingRepository.findNextBookings", "idx_bookings_item_status_start",
+                        test -> test.bookingRepository.findNextBookings(List.of(BASE + 1, BASE + 2, BASE + 3),
+                                BookingStatus.APPROVED, NOW)),
+                call("BookingRepository.findAllByItemIdAndBookingStatusInAndEndIsAfter",
+                        "idx_bookings_item_status_start|bookings_no_overlap",
+                        test -> test.bookingRepository.findAllByItemIdAndBookingStatusInAndEndIsAfter(BASE + 1,
+                                BookingStatus.BLOCKING, NOW)),
+                call("BookingRepository.findTopByItemIdAndBookerIdAndEndIsBeforeAndBookingStatusIs",
+                        "idx_bookings_item_booker_end",
+                        test -> test.bookingRepository.findTopByItemIdAndBookerIdAndEndIsBeforeAndBookingStatusIs(
+                                BASE + 1, BASE + 1, NOW, BookingStatus.APPROVED,
+                                Sort.by(Sort.Direction.DESC, "end"))),
+                call("ItemRepository.findOwnerItems", "idx_items_owner",
+                        test -> test.itemRepository.findOwnerItems(BASE + 1, PageRequest.of(0, 10))),
+                call("ItemRepository.findAllByRequestIdIn", "idx_items_request",
+                        test -> test.itemRepository.findAllByRequestIdIn(List.of(BASE + 1, BASE + 2, BASE + 3))),
+                call("CommentRepository.findAllByItemIdIn", "idx_comments_item",
+                        test -> test.commentRepository.findAllByItemIdIn(List.of(BASE + 1, BASE + 2, BASE + 3))),
+                call("ItemRequestRepository.findAllByRequesterIdOrderByCreatedDesc", "idx_requests_requester_created",
+                        test -> test.itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(BASE + 1)),
+                call("ItemRequestRepository.findAllByRequesterIdIsNot", "idx_requests_created",
+                        test -> test.itemRequestRepository.findAllByRequesterIdIsNot(BASE + 1,
+                                PageRequest.of(0, 10, Sort.Direction.DESC, "created")))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryMethods")
+    void queryUsesIndex(String method, String index, Consumer<QueryIndexTest> call) {
+        STATEMENTS.clear();
+        call.accept(this);
+        List<RecordedStatement> statements = new ArrayList<>(STATEMENTS);
+        assertFalse(statements.isEmpty(), method + " sent no query");
+        RecordedStatement query = statements.get(0);
+
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + query.sql, String.class,
+                query.parameters.toArray());
+
+        Pattern indexName = Pattern.compile(index);
+        assertTrue(plan.stream().anyMatch(line -> indexName.matcher(line).find()),
+                method + " is not planned on " + index + ":\n" + query.sql + "\n" + String.join("\n", plan));
+    }
+
+    private static Arguments call(String method, String index, Consumer<QueryIndexTest> call) {
+        return Arguments.of(method, index, call);
+    }
+
+    @TestConfiguration
+    static class StatementRecording {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? recording((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    private static DataSource recording(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection ? recording((Connection) result) : result);
+    }
+
+    private static Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement")
+                        ? recording((PreparedStatement) result, (String) args[0])
+                        : result);
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("executeQuery")) {
+                STATEMENTS.add(new RecordedStatement(sql, new ArrayList<>(parameters.values())));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interception interception) {
+        return (T) Proxy.newProxyInstance(QueryIndexTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals") && args != null && args.length == 1) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode") && args == null) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return interception.after(method, args, result);
+                });
+    }
+
+    private interface Interception {
+
+        Object after(Method method, Object[] args, Object result);
+    }
+
+    private static final class RecordedStatement {
+
+        private final String sql;
+
+        private final List<Object> parameters;
+
+        private RecordedStatement(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.booking.dto.State.ALL;
+
+/**
+ * Counts the statements behind the list read paths: they must not grow with the number of rows,
+ * and no entity may be hydrated while the DTOs are built.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReadQueryCountTest {
+
+    private static final int ROWS = 3;
+
+    private final BookingServiceImpl bookingService;
+
+    private final ItemServiceImpl itemService;
+
+    private final UserRepository userRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    private final List<User> bookers = new ArrayList<>();
+
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void prepare() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            User booker = userRepository.save(User.builder()
+                    .name("booker " + i)
+                    .email("booker" + i + "@mail.ru")
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(i + 2L))
+                    .end(now.minusDays(i + 1L))
+                    .item(item)
+                    .booker(booker)
+                    .bookingStatus(BookingStatus.APPROVED)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(now)
+                    .build());
+            bookers.add(booker);
+            items.add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingListsTakeOneQueryAfterUserCheck() {
+        Statistics statistics = statistics();
+
+        List<BookingInfoDto> ownerBookings = bookingService.getOwnersBookings(owner.getId(), ALL, 0, 10,
+                null, null).getContent();
+
+        assertEquals(ROWS, ownerBookings.size());
+        assertEquals(items.get(0).getName(), ownerBookings.get(0).getItem().getName());
+        assertEquals(bookers.get(0).getEmail(), ownerBookings.get(0).getBooker().getEmail());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        List<BookingInfoDto> bookerBookings = bookingService.getUsersBookings(bookers.get(1).getId(), ALL, 0, 10,
+                null, null).getContent();
+
+        assertEquals(1, bookerBookings.size());
+        assertEquals(items.get(1).getId(), bookerBookings.get(0).getItem().getId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void ownersItemsTakeOneQueryPerPart() {
+        Statistics statistics = statistics();
+
+        List<ItemDto> ownerItems = new ArrayList<>(itemService.getUsersItems(owner.getId(), 0, 10));
+
+        assertEquals(ROWS, ownerItems.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(items.get(i).getId(), ownerItems.get(i).getId());
+            assertEquals(1, ownerItems.get(i).getComments().size());
+            assertEquals(bookers.get(i).getName(), ownerItems.get(i).getComments().get(0).getAuthorName());
+        }
+        // user check, items page, last and next booking marks, comments
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -7,11 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.export.BookingExportFormat;
+import ru.practicum.shareit.booking.export.BookingExporter;
 
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -19,6 +25,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -26,9 +33,12 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.dto.State.ALL;
+import static ru.practicum.shareit.booking.dto.State.PAST;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -39,6 +49,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExporter bookingExporter;
+
     @Autowired
     private MockMvc mvc;
 
@@ -162,8 +175,8 @@ class BookingControllerTest {
 
     @Test
     void getUsersBookingsTest() throws Exception {
-        when(bookingService.getUsersBookings(1L, ALL, 0, 10))
-                .thenReturn(List.of(bookingInfoDto));
+        when(bookingService.getUsersBookings(1L, ALL, 0, 10, null, null))
+                .thenReturn(new SliceImpl<>(List.of(bookingInfoDto)));
 
         mvc.perform(get("/bookings/")
                         .header("X-Sharer-User-Id", 1L)
@@ -181,8 +194,8 @@ class BookingControllerTest {
 
     @Test
     void getOwnersBookingsTest() throws Exception {
-        when(bookingService.getOwnersBookings(1L, ALL, 0, 10))
-                .thenReturn(List.of(bookingInfoDto));
+        when(bookingService.getOwnersBookings(1L, ALL, 0, 10, null, null))
+                .thenReturn(new SliceImpl<>(List.of(bookingInfoDto)));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -195,7 +208,40 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id", is(bookingInfoDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$[0].item.name", is(bookingInfoDto.getItem().getName())))
                 .andExpect(jsonPath("$[0].booker.id", is(bookingInfoDto.getBooker().getId()), Long.class))
-                .andExpect(jsonPath("$[0].status", is(bookingInfoDto.getStatus().toString())));
+                .andExpect(jsonPath("$[0].status", is(bookingInfoDto.getStatus().toString())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
     }
-}
 
+    @Test
+    void getOwnersBookingsTestLinksNextPageByCursor() throws Exception {
+        when(bookingService.getOwnersBookings(1L, PAST, 0, 1, null, null))
+                .thenReturn(new SliceImpl<>(List.of(bookingInfoDto), PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings/owner?state=PAST&from=0&size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingInfoDto.getId()), Long.class))
+                .andExpect(header().string(HttpHeaders.LINK, "</bookings/owner?state=PAST&size=1&afterStart="
+                        + bookingInfoDto.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                        + "&afterId=" + bookingInfoDto.getId() + ">; rel=\"next\""));
+    }
+
+    @Test
+    public void exportOwnersBookingsTest() throws Exception {
+        String csv = "id,start,end,status,itemId,itemName,bookerId,bookerName\n" +
+                "1,2030-01-01T10:00:00,2030-01-02T10:00:00,APPROVED,1,drill,2,booker\n";
+        when(bookingExporter.exportOwnersBookings(1L, PAST, BookingExportFormat.CSV))
+                .thenReturn(out -> out.write(csv.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export?state=PAST&format=CSV")
+                        .header("X-Sharer-User-Id", 1L))
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\""))
+                .andExpect(content().string(csv));
+    }
+}
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.bookingTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void findPeriodsByItemIdTest() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Booking approved = bookingRepository.save(Booking.builder()
+                .start(from.plusDays(2L))
+                .end(from.plusDays(3L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build());
+        Booking waiting = bookingRepository.save(Booking.builder()
+                .start(from.plusDays(1L))
+                .end(from.plusDays(2L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(from.plusDays(4L))
+                .end(from.plusDays(5L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.REJECTED)
+                .build());
+
+        List<Long> periodIds = bookingRepository
+                .findAllByItemIdAndBookingStatusInAndEndIsAfter(item.getId(), BookingStatus.BLOCKING, from)
+                .stream()
+                .map(BookingPeriod::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(approved.getId(), waiting.getId()), periodIds);
+
+        try (Stream<BookingPeriod> periods = bookingRepository
+                .findAllByItemIdAndBookingStatusInAndEndIsAfterAndStartIsBeforeOrderByStartAsc(item.getId(),
+                        BookingStatus.BLOCKING, from, from.plusDays(10L))) {
+            List<LocalDateTime> starts = periods.map(BookingPeriod::getStart).collect(Collectors.toList());
+            assertEquals(List.of(waiting.getStart(), approved.getStart()), starts);
+        }
+    }
+
+    @Test
+    void findBookerAndOwnerBookingsByStateTest() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(3L))
+                .end(now.minusDays(2L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build());
+        Booking current = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(1L))
+                .end(now.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build());
+        Booking waiting = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(2L))
+                .end(now.plusDays(3L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.WAITING)
+                .build());
+        Booking rejected = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(4L))
+                .end(now.plusDays(5L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.REJECTED)
+                .build());
+        PageRequest firstPage = PageRequest.of(0, 10);
+
+        assertEquals(List.of(rejected.getId(), waiting.getId(), current.getId(), past.getId()),
+                ids(bookingRepository.findBookerBookings(booker.getId(), State.ALL, now, null, null, firstPage)));
+        assertEquals(List.of(rejected.getId(), waiting.getId()), ids(bookingRepository
+                .findBookerBookings(booker.getId(), State.FUTURE, now, null, null, firstPage)));
+        assertEquals(List.of(past.getId()), ids(bookingRepository
+                .findBookerBookings(booker.getId(), State.PAST, now, null, null, firstPage)));
+        assertEquals(List.of(current.getId()), ids(bookingRepository
+                .findOwnerBookings(owner.getId(), State.CURRENT, now, null, null, firstPage)));
+        assertEquals(List.of(waiting.getId()), ids(bookingRepository
+                .findOwnerBookings(owner.getId(), State.WAITING, now, null, null, firstPage)));
+        assertEquals(List.of(rejected.getId()), ids(bookingRepository
+                .findOwnerBookings(owner.getId(), State.REJECTED, now, null, null, firstPage)));
+        assertTrue(bookingRepository
+                .findOwnerBookings(booker.getId(), State.ALL, now, null, null, firstPage).isEmpty());
+
+        Slice<BookingView> head = bookingRepository
+                .findOwnerBookings(owner.getId(), State.ALL, now, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(rejected.getId(), waiting.getId()), ids(head));
+        assertTrue(head.hasNext());
+        assertEquals(item.getName(), head.getContent().get(0).getItemName());
+        assertEquals(booker.getEmail(), head.getContent().get(0).getBookerEmail());
+
+        BookingView last = head.getContent().get(1);
+        Slice<BookingView> tail = bookingRepository
+                .findOwnerBookings(owner.getId(), State.ALL, now, last.getStart(), last.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(current.getId(), past.getId()), ids(tail));
+        assertFalse(tail.hasNext());
+    }
+
+    @Test
+    void streamOwnerBookingsTest() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(3L))
+                .end(now.minusDays(2L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build());
+        Booking rejected = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(4L))
+                .end(now.plusDays(5L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.REJECTED)
+                .build());
+
+        try (Stream<BookingExportRow> rows = bookingRepository.streamOwnerBookings(owner.getId(), State.ALL, now)) {
+            List<BookingExportRow> exported = rows.collect(Collectors.toList());
+            assertEquals(List.of(rejected.getId(), past.getId()),
+                    exported.stream().map(BookingExportRow::getId).collect(Collectors.toList()));
+            assertEquals(BookingStatus.REJECTED, exported.get(0).getStatus());
+            assertEquals(item.getName(), exported.get(0).getItemName());
+            assertEquals(booker.getName(), exported.get(0).getBookerName());
+            assertEquals(past.getStart(), exported.get(1).getStart());
+        }
+        try (Stream<BookingExportRow> rows = bookingRepository.streamOwnerBookings(owner.getId(), State.PAST, now)) {
+            assertEquals(List.of(past.getId()), rows.map(BookingExportRow::getId).collect(Collectors.toList()));
+        }
+        try (Stream<BookingExportRow> rows = bookingRepository.streamOwnerBookings(booker.getId(), State.ALL, now)) {
+            assertEquals(0, rows.count());
+        }
+    }
+
+    private static List<Long> ids(Slice<BookingView> bookings) {
+        return bookings.map(BookingView::getId).getContent();
+    }
+}
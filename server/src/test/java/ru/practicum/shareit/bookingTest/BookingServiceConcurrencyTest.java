@@ -0,0 +1,103 @@
+package ru.practicum.shareit.bookingTest;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.dto.State.ALL;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static final int CALLS = 600;
+
+    @Autowired
+    private final BookingServiceImpl bookingService;
+
+    @MockBean
+    private final UserRepository userRepository;
+
+    @MockBean
+    private final ItemRepository itemRepository;
+
+    @MockBean
+    private final BookingRepository bookingRepository;
+
+    @BeforeEach
+    public void prepare() {
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), invocation.getArgument(5)));
+        when(bookingRepository.findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), invocation.getArgument(5)));
+    }
+
+    @Test
+    void concurrentCallsGetOwnPagesTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLS; i++) {
+                long userId = i % 7 + 1;
+                int from = ThreadLocalRandom.current().nextInt(0, 500);
+                int size = ThreadLocalRandom.current().nextInt(1, 50);
+                boolean owner = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    List<BookingInfoDto> result = (owner
+                            ? bookingService.getOwnersBookings(userId, ALL, from, size, null, null)
+                            : bookingService.getUsersBookings(userId, ALL, from, size, null, null)).getContent();
+                    assertEquals(1, result.size());
+                    assertEquals(pageId(userId, from / size * size, size), result.get(0).getId(),
+                            "user " + userId + " from " + from + " size " + size);
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SliceImpl<BookingView> page(Long userId, Pageable pageable) throws InterruptedException {
+        Thread.sleep(1L);
+        BookingView booking = new BookingView(pageId(userId, pageable.getOffset(), pageable.getPageSize()),
+                LocalDateTime.now().plusDays(1L), LocalDateTime.now().plusDays(2L), BookingStatus.APPROVED,
+                1L, "item name", "description", true, null,
+                userId, "user", "user@mail.ru");
+        return new SliceImpl<>(List.of(booking));
+    }
+
+    private static long pageId(long userId, long offset, int size) {
+        return userId * 1_000_000L + offset * 100L + size;
+    }
+}
@@ -6,9 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -19,9 +22,12 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -29,6 +35,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.dto.State.*;
 
@@ -286,6 +293,87 @@ public class BookingServiceTest {
         assertEquals(dateTimeException.getMessage(), "date time exception");
     }
 
+    @Test
+    void createTestFailOverlappingBookingThrowsNotAvailableException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        stubBookableItem(5L);
+
+        BookingDto firstBookingDto = bookingDto(5L, start, start.plusDays(2L));
+        BookingDto overlappingBookingDto = bookingDto(5L, start.plusDays(1L), start.plusDays(3L));
+
+        bookingService.create(3L, firstBookingDto);
+        when(bookingRepository.findAllByItemIdAndBookingStatusInAndEndIsAfter(eq(5L), any(), any()))
+                .thenReturn(List.of(period(1L, firstBookingDto.getStart(), firstBookingDto.getEnd())));
+        NotAvailableException notAvailableException = assertThrows(NotAvailableException.class,
+                () -> bookingService.create(3L, overlappingBookingDto));
+        assertEquals(notAvailableException.getMessage(), "item id 5 already booked for this period");
+    }
+
+    @Test
+    void createTestOkWhenOverlappingBookingIsGoneFromDatabase() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        stubBookableItem(21L);
+
+        bookingService.create(3L, bookingDto(21L, start, start.plusDays(2L)));
+        assertThat(bookingService.create(3L, bookingDto(21L, start.plusDays(1L), start.plusDays(3L))),
+                is(notNullValue()));
+    }
+
+    @Test
+    void createTestFailExclusionConstraintThrowsNotAvailableException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        stubBookableItem(22L);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        NotAvailableException notAvailableException = assertThrows(NotAvailableException.class,
+                () -> bookingService.create(3L, bookingDto(22L, start, start.plusDays(1L))));
+        assertEquals(notAvailableException.getMessage(), "item id 22 already booked for this period");
+    }
+
+    @Test
+    void createTestOkAdjacentBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        stubBookableItem(6L);
+
+        assertThat(bookingService.create(3L, bookingDto(6L, start, start.plusDays(1L))), is(notNullValue()));
+        assertThat(bookingService.create(3L, bookingDto(6L, start.plusDays(1L), start.plusDays(2L))),
+                is(notNullValue()));
+    }
+
+    @Test
+    void createTestOkAfterOverlappingBookingRejected() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        LocalDateTime end = LocalDateTime.now().plusDays(2L);
+        Item item = stubBookableItem(8L);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    Booking saved = invocation.getArgument(0, Booking.class);
+                    if (saved.getId() == null) {
+                        saved.setId(10L);
+                    }
+                    return saved;
+                });
+
+        BookingDto bookingDto = bookingDto(8L, start, end);
+
+        BookingInfoDto rejected = bookingService.create(3L, bookingDto);
+        Booking booking = Booking.builder()
+                .id(rejected.getId())
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker())
+                .bookingStatus(BookingStatus.WAITING)
+                .build();
+        when(bookingRepository.findById(rejected.getId()))
+                .thenReturn(Optional.of(booking));
+        bookingService.updateStatus(1L, rejected.getId(), false);
+
+        assertThat(bookingService.create(3L, bookingDto), is(notNullValue()));
+    }
+
     @Test
     void updateStatusThenApprovedTestOk() {
         LocalDateTime start = LocalDateTime.now().plusDays(1L);
@@ -584,6 +672,83 @@ public class BookingServiceTest {
         assertThat(bookingInfoDto, is(notNullValue()));
     }
 
+    @Test
+    void getAllByIdTestSkipsForeignAndMissingBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        LocalDateTime end = LocalDateTime.now().plusDays(2L);
+
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .id(3L)
+                .name("booker")
+                .email("booker@mail.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        Item foreignItem = Item.builder()
+                .id(2L)
+                .name("foreign item")
+                .description("description")
+                .available(true)
+                .owner(booker)
+                .build();
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+
+        Booking foreignBooking = Booking.builder()
+                .id(2L)
+                .start(start)
+                .end(end)
+                .item(foreignItem)
+                .booker(booker)
+                .bookingStatus(BookingStatus.WAITING)
+                .build();
+
+        when(userRepository.existsById(1L))
+                .thenReturn(true);
+        when(bookingRepository.findAllByIdIn(any()))
+                .thenReturn(List.of(foreignBooking, booking));
+
+        List<BookingInfoDto> bookings = bookingService.getAllById(1L, List.of(2L, 1L, 1L, 5L));
+        assertEquals(1, bookings.size());
+        assertEquals(1L, bookings.get(0).getId());
+
+        when(userRepository.existsById(3L))
+                .thenReturn(true);
+        bookings = bookingService.getAllById(3L, List.of(2L, 1L));
+        assertEquals(2, bookings.size());
+        assertEquals(2L, bookings.get(0).getId());
+    }
+
+    @Test
+    void getAllByIdTestFailUserThrowsNotFoundException() {
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> bookingService.getAllById(9L, List.of(1L)));
+        assertEquals(notFoundException.getMessage(), "user id 9 not found");
+    }
+
     @Test
     void getTestFailBookingThrowsNotfoundException() {
         when(bookingRepository.findById(anyLong()))
@@ -693,11 +858,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerId(any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking, pastBooking, currentBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(futureBooking, pastBooking, currentBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, ALL, 0, 11);
+                .getUsersBookings(3L, ALL, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(3));
     }
@@ -736,11 +901,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndStartIsAfter(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(futureBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, FUTURE, 0, 11);
+                .getUsersBookings(3L, FUTURE, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(1));
     }
@@ -779,11 +944,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndEndIsBefore(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(pastBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(pastBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, PAST, 0, 11);
+                .getUsersBookings(3L, PAST, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(1));
     }
@@ -822,11 +987,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(currentBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, CURRENT, 0, 11);
+                .getUsersBookings(3L, CURRENT, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(1));
     }
@@ -865,11 +1030,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.WAITING)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndBookingStatus(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(waitingBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(waitingBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, WAITING, 0, 11);
+                .getUsersBookings(3L, WAITING, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(1));
     }
@@ -908,11 +1073,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.REJECTED)
                 .build();
 
-        when(bookingRepository.findAllByBookerIdAndBookingStatus(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(rejectedBooking)));
+        when(bookingRepository.findBookerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(rejectedBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getUsersBookings(3L, REJECTED, 0, 11);
+                .getUsersBookings(3L, REJECTED, 0, 11, null, null).getContent();
         assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.size(), is(1));
     }
@@ -923,22 +1088,22 @@ public class BookingServiceTest {
                 .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, ALL, 0, 11));
+                () -> bookingService.getUsersBookings(1L, ALL, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
          notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, CURRENT, 0, 11));
+                () -> bookingService.getUsersBookings(1L, CURRENT, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
         notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, PAST, 0, 11));
+                () -> bookingService.getUsersBookings(1L, PAST, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
         notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, FUTURE, 0, 11));
+                () -> bookingService.getUsersBookings(1L, FUTURE, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
         notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, WAITING, 0, 11));
+                () -> bookingService.getUsersBookings(1L, WAITING, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
         notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getUsersBookings(1L, REJECTED, 0, 11));
+                () -> bookingService.getUsersBookings(1L, REJECTED, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user id 1 not found");
     }
 
@@ -960,6 +1125,19 @@ public class BookingServiceTest {
 //        assertEquals(stateException.getMessage(), "Unknown state: UNKNOWN_STATE");
 //    }
 
+    @Test
+    void getUsersBookingsTestFailIncompleteCursorThrowsPaginationException() {
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        PaginationException paginationException = assertThrows(PaginationException.class,
+                () -> bookingService.getUsersBookings(2L, ALL, 0, 10, LocalDateTime.now(), null));
+        assertEquals(paginationException.getMessage(), "wrong pagination params");
+        paginationException = assertThrows(PaginationException.class,
+                () -> bookingService.getOwnersBookings(2L, ALL, 0, 10, null, 1L));
+        assertEquals(paginationException.getMessage(), "wrong pagination params");
+    }
+
     @Test
     void getUsersBookingsTestFailPaginationException() {
         User owner = User.builder()
@@ -999,40 +1177,40 @@ public class BookingServiceTest {
                 .thenReturn(Optional.of(booking));
 
         PaginationException paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), ALL, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), ALL, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), ALL, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), ALL, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), CURRENT, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), CURRENT, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), CURRENT, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), CURRENT, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), PAST, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), PAST, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), PAST, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), PAST, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), FUTURE, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), FUTURE, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), FUTURE, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), FUTURE, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), WAITING, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), WAITING, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), WAITING, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), WAITING, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), REJECTED, -1, 11));
+                () -> bookingService.getUsersBookings(booker.getId(), REJECTED, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getUsersBookings(booker.getId(), REJECTED, 0, 0));
+                () -> bookingService.getUsersBookings(booker.getId(), REJECTED, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
     }
 
@@ -1096,11 +1274,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerId(any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking, pastBooking, currentBooking)));
+        when(bookingRepository.findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(futureBooking, pastBooking, currentBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, ALL, 0, 11);
+                .getOwnersBookings(1L, ALL, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 3);
     }
@@ -1141,11 +1319,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        when(bookingRepository.findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(futureBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, FUTURE, 0, 11);
+                .getOwnersBookings(1L, FUTURE, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 1);
     }
@@ -1186,11 +1364,11 @@ public class BookingServiceTest {
                 .bookingStatus(BookingStatus.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(pastBooking)));
+        when(bookingRepository.findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(pastBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, PAST, 0, 11);
+                .getOwnersBookings(1L, PAST, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 1);
     }
@@ -1232,11 +1410,11 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+                .findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(currentBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, CURRENT, 0, 11);
+                .getOwnersBookings(1L, CURRENT, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 1);
     }
@@ -1278,11 +1456,11 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndBookingStatus(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(waitingBooking)));
+                .findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(waitingBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, WAITING, 0, 11);
+                .getOwnersBookings(1L, WAITING, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 1);
     }
@@ -1324,11 +1502,11 @@ public class BookingServiceTest {
                 .build();
 
         when(bookingRepository
-                .findAllByItemOwnerIdAndBookingStatus(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(rejectedBooking)));
+                .findOwnerBookings(any(), any(), any(), any(), any(), any()))
+                .thenReturn(views(rejectedBooking));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService
-                .getOwnersBookings(1L, REJECTED, 0, 11);
+                .getOwnersBookings(1L, REJECTED, 0, 11, null, null).getContent();
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertEquals(bookingInfoDtoList.size(), 1);
     }
@@ -1354,7 +1532,7 @@ public class BookingServiceTest {
         when(userRepository.existsById(any()))
                 .thenReturn(false);
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
-                () -> bookingService.getOwnersBookings(1L, ALL, 0, 11));
+                () -> bookingService.getOwnersBookings(1L, ALL, 0, 11, null, null));
         assertEquals(notFoundException.getMessage(), "user not found");
     }
 
@@ -1397,40 +1575,40 @@ public class BookingServiceTest {
                 .thenReturn(Optional.of(booking));
 
         PaginationException paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), ALL, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), ALL, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), ALL, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), ALL, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), CURRENT, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), CURRENT, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), CURRENT, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), CURRENT, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), PAST, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), PAST, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), PAST, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), PAST, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), FUTURE, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), FUTURE, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), FUTURE, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), FUTURE, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), WAITING, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), WAITING, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), WAITING, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), WAITING, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), REJECTED, -1, 11));
+                () -> bookingService.getOwnersBookings(booker.getId(), REJECTED, -1, 11, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
         paginationException = assertThrows(PaginationException.class,
-                () -> bookingService.getOwnersBookings(booker.getId(), REJECTED, 0, 0));
+                () -> bookingService.getOwnersBookings(booker.getId(), REJECTED, 0, 0, null, null));
         assertEquals(paginationException.getMessage(), "wrong pagination params");
     }
 
@@ -1447,4 +1625,76 @@ public class BookingServiceTest {
                 .thenReturn(false);
         assertFalse(bookingService.isExist(1L));
     }
+
+    /**
+     * Stubs an available item of owner 1 and booker 3, so an overlap test only has to show its intervals.
+     * Each test uses its own item id, because the interval index outlives a single test.
+     */
+    private Item stubBookableItem(Long itemId) {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(itemId)
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(owner));
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker()));
+        when(itemRepository.findById(itemId))
+                .thenReturn(Optional.of(item));
+        return item;
+    }
+
+    private static User booker() {
+        return User.builder()
+                .id(3L)
+                .name("booker")
+                .email("booker@mail.ru")
+                .build();
+    }
+
+    private static BookingDto bookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(itemId)
+                .build();
+    }
+
+    private static SliceImpl<BookingView> views(Booking... bookings) {
+        return new SliceImpl<>(Arrays.stream(bookings)
+                .map(booking -> new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+                        booking.getBookingStatus(), booking.getItem().getId(), booking.getItem().getName(),
+                        booking.getItem().getDescription(), booking.getItem().getAvailable(), null,
+                        booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail()))
+                .collect(Collectors.toList()));
+    }
+
+    private static BookingPeriod period(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
 }
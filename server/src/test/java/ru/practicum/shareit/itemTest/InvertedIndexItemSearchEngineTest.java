@@ -0,0 +1,131 @@
+package ru.practicum.shareit.itemTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class InvertedIndexItemSearchEngineTest {
+
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+
+    private InvertedIndexItemSearchEngine searchEngine;
+
+    @BeforeEach
+    public void prepare() {
+        searchEngine = new InvertedIndexItemSearchEngine(itemRepository,
+                Mockito.mock(PlatformTransactionManager.class));
+        when(itemRepository.findAllByAvailableTrueOrderByIdAsc())
+                .thenReturn(Stream.of(text(1L, "Дрель", "Простая дрель"),
+                        text(2L, "Отвертка", "Аккумуляторная отвертка"),
+                        text(3L, "Дрель ударная", null)));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void searchTestMatchesSubstringsIgnoringCase() {
+        assertEquals(List.of(1L, 3L), searchEngine.search("ДРЕль", PageRequest.of(0, 10)));
+        assertEquals(List.of(2L), searchEngine.search("умулятор", PageRequest.of(0, 10)));
+        assertEquals(List.of(1L, 3L), searchEngine.search("др", PageRequest.of(0, 10)));
+        assertTrue(searchEngine.search("пила", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchTestRanksNameMatchesAndFrequencyFirst() {
+        searchEngine.index(item(4L, "Кейс", "Кейс для дрели и сверл, дрель не входит", true));
+        searchEngine.index(item(5L, "Сверло", "Сверло, сверло и еще сверло по металлу", true));
+
+        assertEquals(List.of(1L, 3L, 4L), searchEngine.search("дрел", PageRequest.of(0, 10)));
+        assertEquals(List.of(5L, 4L), searchEngine.search("сверл", PageRequest.of(0, 10)));
+        assertEquals(List.of(4L), searchEngine.search("сверл", PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void searchTestVerifiesCandidatesAgainstText() {
+        assertTrue(searchEngine.search("дрельпрост", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(searchEngine.search("ель от", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchTestPagesById() {
+        assertEquals(List.of(1L), searchEngine.search("дрель", PageRequest.of(0, 1)));
+        assertEquals(List.of(3L), searchEngine.search("дрель", PageRequest.of(1, 1)));
+        assertTrue(searchEngine.search("дрель", PageRequest.of(2, 1)).isEmpty());
+    }
+
+    @Test
+    void indexTestFollowsUpdatesAndAvailability() {
+        searchEngine.index(item(1L, "Перфоратор", "Мощный", true));
+        assertEquals(List.of(3L), searchEngine.search("дрель", PageRequest.of(0, 10)));
+        assertEquals(List.of(1L), searchEngine.search("перфоратор", PageRequest.of(0, 10)));
+
+        searchEngine.index(item(3L, "Дрель ударная", null, false));
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(2, searchEngine.size());
+
+        searchEngine.index(item(4L, "Новая дрель", "", true));
+        assertEquals(List.of(4L), searchEngine.search("дрель", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void rebuildTestKeepsWritesMadeWhileItRuns() {
+        when(itemRepository.findAllByAvailableTrueOrderByIdAsc())
+                .thenReturn(Stream.of(text(1L, "Дрель", "Простая дрель"),
+                                text(2L, "Отвертка", "Аккумуляторная отвертка"),
+                                text(3L, "Дрель ударная", null))
+                        .peek(text -> {
+                            if (text.getId() == 1L) {
+                                searchEngine.index(item(2L, "Шуруповерт", "Аккумуляторный", true));
+                                searchEngine.index(item(3L, "Дрель ударная", null, false));
+                                searchEngine.index(item(6L, "Дрель-миксер", "", true));
+                            }
+                        }));
+
+        searchEngine.rebuild();
+
+        assertEquals(List.of(1L, 6L), searchEngine.search("дрель", PageRequest.of(0, 10)));
+        assertEquals(List.of(2L), searchEngine.search("шуруп", PageRequest.of(0, 10)));
+        assertTrue(searchEngine.search("отвертка", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(3, searchEngine.size());
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+
+    private ItemSearchText text(Long id, String name, String description) {
+        return new ItemSearchText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -9,10 +9,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.bulk.ItemImportReport;
+import ru.practicum.shareit.item.bulk.ItemImporter;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentIncDto;
 import ru.practicum.shareit.item.comment.service.CommentService;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
@@ -22,8 +27,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +47,9 @@ class ItemControllerTest {
     @MockBean
     private CommentService commentService;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
     @Autowired
     private MockMvc mvc;
 
@@ -151,6 +162,20 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDtoUpdated.getAvailable())));
     }
 
+    @Test
+    public void findAllByIdTest() throws Exception {
+        when(itemService.findAllById(1L, List.of(1L, 2L)))
+                .thenReturn(List.of(itemDtoUpdated));
+
+        mvc.perform(get("/items")
+                        .param("ids", "1,2")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDtoUpdated.getId()), Long.class));
+    }
+
     @Test
     public void searchByTextTest() throws Exception {
         when(itemService.searchByText("update", 0, 10))
@@ -165,6 +190,33 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDtoUpdated.getAvailable())));
     }
 
+    @Test
+    public void suggestTest() throws Exception {
+        when(itemService.suggest("it", 10))
+                .thenReturn(List.of("item"));
+
+        mvc.perform(get("/items/search/suggest?prefix=it")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("item")));
+    }
+
+    @Test
+    public void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1L);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new FreeSlotDto(from, to)));
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start", is(from.format(DateTimeFormatter.ISO_DATE_TIME))))
+                .andExpect(jsonPath("$[0].end", is(to.format(DateTimeFormatter.ISO_DATE_TIME))));
+    }
+
     @Test
     public void commentTest() throws Exception {
         when(commentService.comment(1L, 1L, commentIncDto))
@@ -182,5 +234,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.created",
                         is(commentDtoCreated.getCreated().format(DateTimeFormatter.ISO_DATE_TIME))));
     }
-}
 
+    @Test
+    public void bulkCreateTest() throws Exception {
+        ItemImportReport report = new ItemImportReport();
+        report.created(1, 7L);
+        report.rejected(2, "name is blank");
+        when(itemImporter.importItems(eq(1L), eq(ItemImportFormat.CSV), any()))
+                .thenReturn(report);
+
+        MvcResult result = mvc.perform(post("/items/bulk")
+                        .content("name,description,available\ndrill,simple,true\n,blank,true\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(ItemImportFormat.CSV_VALUE))
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ItemImportFormat.NDJSON_VALUE))
+                .andExpect(content().string("{\"row\":1,\"id\":7}\n{\"row\":2,\"error\":\"name is blank\"}\n"));
+    }
+}
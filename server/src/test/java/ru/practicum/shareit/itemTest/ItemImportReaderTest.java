@@ -0,0 +1,75 @@
+package ru.practicum.shareit.itemTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ImportFormatException;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.bulk.ItemImportReader;
+import ru.practicum.shareit.item.bulk.ItemImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsQuotedCsvRowsAndRejectsInvalidOnes() throws IOException {
+        ItemImportReader reader = reader(ItemImportFormat.CSV,
+                "requestId,Name,description,available\r\n" +
+                        ",\"Drill, cordless\",\"says \"\"hi\"\"\non two lines\",TRUE\r\n" +
+                        "\n" +
+                        "3,saw,sharp,maybe\n" +
+                        "x,saw,sharp,false\n" +
+                        "5,saw,,false");
+
+        ItemImportRow drill = reader.next();
+        assertEquals(1, drill.getRow());
+        assertEquals("Drill, cordless", drill.getItem().getName());
+        assertEquals("says \"hi\"\non two lines", drill.getItem().getDescription());
+        assertTrue(drill.getItem().getAvailable());
+        assertNull(drill.getItem().getRequestId());
+
+        assertEquals("available must be true or false", reader.next().getError());
+        assertEquals("requestId must be a number", reader.next().getError());
+        ItemImportRow blank = reader.next();
+        assertEquals(4, blank.getRow());
+        assertEquals("description is blank", blank.getError());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumn() {
+        ItemImportReader reader = reader(ItemImportFormat.CSV, "name,available\ndrill,true\n");
+
+        assertThrows(ImportFormatException.class, reader::next);
+    }
+
+    @Test
+    void readsNdjsonRowsAndKeepsGoingAfterBrokenLine() throws IOException {
+        ItemImportReader reader = reader(ItemImportFormat.NDJSON,
+                "{\"id\":9,\"name\":\"drill\",\"description\":\"simple\",\"available\":true,\"requestId\":2}\n" +
+                        "{\"name\":\"saw\",\n" +
+                        "\n" +
+                        "{\"name\":\"saw\",\"description\":\"sharp\"}\n");
+
+        ItemImportRow drill = reader.next();
+        assertFalse(drill.isRejected());
+        assertNull(drill.getItem().getId());
+        assertEquals(2L, drill.getItem().getRequestId());
+
+        assertTrue(reader.next().getError().startsWith("unreadable item"));
+        ItemImportRow saw = reader.next();
+        assertEquals(3, saw.getRow());
+        assertEquals("available is missing", saw.getError());
+        assertNull(reader.next());
+    }
+
+    private ItemImportReader reader(ItemImportFormat format, String body) {
+        return new ItemImportReader(format, new BufferedReader(new StringReader(body)), objectMapper.reader());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.itemTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class ItemNameSuggesterTest {
+
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+
+    private ItemNameSuggester suggester;
+
+    @BeforeEach
+    public void prepare() {
+        suggester = new ItemNameSuggester(itemRepository, Mockito.mock(PlatformTransactionManager.class));
+        suggester.index(item(1L, "Дрель ударная", true));
+        suggester.index(item(2L, "Дрель аккумуляторная", true));
+        suggester.index(item(3L, "Дрезина", true));
+        suggester.index(item(4L, "Удочка", true));
+    }
+
+    @Test
+    void suggestTestOrdersByPopularity() {
+        assertEquals(List.of("дрель", "дрезина"), suggester.suggest("ДР", 10));
+        assertEquals(List.of("дрель"), suggester.suggest("др", 1));
+        assertEquals(List.of("ударная", "удочка"), suggester.suggest("уд", 10));
+        assertTrue(suggester.suggest("пила", 10).isEmpty());
+    }
+
+    @Test
+    void suggestTestFollowsUpdatesAndAvailability() {
+        assertEquals(List.of("дрель", "дрезина"), suggester.suggest("дре", 10));
+
+        suggester.index(item(1L, "Перфоратор", true));
+        suggester.index(item(2L, "Дрель аккумуляторная", false));
+        assertEquals(List.of("дрезина"), suggester.suggest("дре", 10));
+        assertEquals(List.of("перфоратор"), suggester.suggest("пер", 10));
+        assertEquals(List.of("удочка"), suggester.suggest("уд", 10));
+        assertTrue(suggester.suggest("акк", 10).isEmpty());
+
+        suggester.index(item(3L, null, false));
+        assertTrue(suggester.suggest("дре", 10).isEmpty());
+    }
+
+    @Test
+    void suggestTestRunsConcurrentlyWithIndexing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (long id = 10; id < 1010; id++) {
+                    suggester.index(item(id, "Дрель " + id, true));
+                }
+            }));
+            for (int reader = 0; reader < 3; reader++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertEquals("дрель", suggester.suggest("др", 1).get(0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1004, suggester.size());
+        assertEquals(List.of("дрель", "дрезина"), suggester.suggest("дре", 2));
+    }
+
+    @Test
+    void rebuildTestKeepsWritesMadeWhileItRuns() {
+        when(itemRepository.findAllByAvailableTrueOrderByIdAsc())
+                .thenReturn(Stream.of(text(1L, "Дрель ударная"),
+                                text(2L, "Дрель аккумуляторная"),
+                                text(3L, "Дрезина"))
+                        .peek(text -> {
+                            if (text.getId() == 1L) {
+                                suggester.index(item(2L, "Шуруповерт", true));
+                                suggester.index(item(3L, "Дрезина", false));
+                                suggester.index(item(5L, "Дренажный насос", true));
+                            }
+                        }));
+
+        suggester.rebuild();
+
+        assertEquals(List.of("дрель", "дренажный"), suggester.suggest("дре", 10));
+        assertEquals(List.of("шуруповерт"), suggester.suggest("шу", 10));
+        assertTrue(suggester.suggest("акк", 10).isEmpty());
+        assertEquals(List.of("ударная"), suggester.suggest("уд", 10));
+        assertEquals(3, suggester.size());
+    }
+
+    private Item item(Long id, String name, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .available(available)
+                .build();
+    }
+
+    private ItemSearchText text(Long id, String name) {
+        return new ItemSearchText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+}
@@ -4,7 +4,6 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -38,21 +37,67 @@ public class ItemRepositoryTest {
                 .build();
 
 
-        PageRequest pageRequest = PageRequest.of(0, 11, Sort.Direction.ASC, "id");
-        userRepository.save(owner);
+        PageRequest pageRequest = PageRequest.of(0, 11);
+        item1.setOwner(userRepository.save(owner));
         Item savedItem1 = itemRepository.save(item1);
 
-        List<Item> itemList = itemRepository.searchByText("1", pageRequest).toList();
+        List<Long> itemList = itemRepository.searchIdsByText("1", pageRequest);
 
         assertNotNull(itemList);
-        assertEquals(itemList.size(), 1);
+        assertEquals(itemList, List.of(savedItem1.getId()));
         assertEquals(item1.getName(), savedItem1.getName());
         assertEquals(item1.getDescription(), savedItem1.getDescription());
 
-        List<Item> anotherItemList = itemRepository.searchByText("some another text", pageRequest).toList();
+        List<Long> anotherItemList = itemRepository.searchIdsByText("some another text", pageRequest);
         assertEquals(anotherItemList.size(), 0);
 
         userRepository.deleteAll();
         itemRepository.deleteAll();
     }
+
+    @Test
+    void searchIdsByTextNativeTest() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("native@mail.ru")
+                .build());
+        Item drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("простая")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("Дрель ударная")
+                .description("занята")
+                .available(false)
+                .owner(owner)
+                .build());
+        Item screwdriver = itemRepository.save(Item.builder()
+                .name("Отвертка")
+                .description("не дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), itemRepository.searchIdsByTextNative("ДРЕЛЬ", 10, 0));
+        assertEquals(List.of(screwdriver.getId()), itemRepository.searchIdsByTextNative("дрель", 10, 1));
+        assertEquals(List.of(), itemRepository.searchIdsByTextNative("пила", 10, 0));
+    }
+
+    @Test
+    void saveAllTakesIdsFromOnePooledBlock() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("pooled@mail.ru")
+                .build());
+        List<Item> items = itemRepository.saveAll(List.of(
+                Item.builder().name("first").description("d").available(true).owner(owner).build(),
+                Item.builder().name("second").description("d").available(true).owner(owner).build(),
+                Item.builder().name("third").description("d").available(true).owner(owner).build()));
+
+        long first = items.get(0).getId();
+        assertEquals(List.of(first, first + 1, first + 2),
+                List.of(items.get(0).getId(), items.get(1).getId(), items.get(2).getId()));
+    }
 }
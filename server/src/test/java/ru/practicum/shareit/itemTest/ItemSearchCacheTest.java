@@ -0,0 +1,152 @@
+package ru.practicum.shareit.itemTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ItemSearchCache cache;
+
+    private AtomicInteger searches;
+
+    @BeforeEach
+    public void prepare() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(100, 60, meterRegistry);
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    void getTestServesRepeatedQueriesFromCache() {
+        cache.get("Drill", 0, 10, this::search);
+        cache.get("dRILL", 0, 10, this::search);
+        cache.get("drill", 1, 10, this::search);
+
+        assertEquals(2, searches.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictTestDropsOnlyMatchingPages() {
+        cache.get("drill", 0, 10, this::search);
+        cache.get("saw", 0, 10, this::search);
+        Item item = item("Hammer", "heavy", true);
+        ItemSearchCache.Snapshot before = ItemSearchCache.Snapshot.of(item);
+
+        item.setName("Hammer drill");
+        cache.evict(before, item);
+        cache.get("drill", 0, 10, this::search);
+        cache.get("saw", 0, 10, this::search);
+        assertEquals(3, searches.get());
+
+        before = ItemSearchCache.Snapshot.of(item);
+        item.setAvailable(false);
+        cache.evict(before, item);
+        cache.get("drill", 0, 10, this::search);
+        assertEquals(4, searches.get());
+
+        before = ItemSearchCache.Snapshot.of(item);
+        cache.evict(before, item);
+        cache.get("drill", 0, 10, this::search);
+        assertEquals(4, searches.get());
+        assertEquals(2.0, meterRegistry.get("shareit.search.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void getTestDoesNotKeepPageComputedDuringWrite() {
+        cache.get("drill", 0, 10, () -> {
+            cache.evict(null, item("Drill", "", true));
+            return search();
+        });
+        cache.get("drill", 0, 10, this::search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void getTestDoesNotKeepPageComputedWhileWriteIsLogged() throws Exception {
+        CountDownLatch logging = new CountDownLatch(1);
+        CountDownLatch logged = new CountDownLatch(1);
+        ReflectionTestUtils.setField(cache, "writes", new ConcurrentSkipListMap<Long, Object>() {
+            @Override
+            public Object put(Long key, Object value) {
+                logging.countDown();
+                try {
+                    assertTrue(logged.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.put(key, value);
+            }
+        });
+        Thread writer = new Thread(() -> cache.evict(null, item("Drill", "", true)));
+        writer.start();
+        assertTrue(logging.await(5, TimeUnit.SECONDS));
+
+        cache.get("drill", 0, 10, this::search);
+        logged.countDown();
+        writer.join();
+        cache.get("drill", 0, 10, this::search);
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void getTestHandsOutCopiesOfCachedPage() {
+        List<ItemDto> first = cache.get("drill", 0, 10, this::search);
+        first.get(0).setName("changed");
+        first.clear();
+
+        List<ItemDto> second = cache.get("drill", 0, 10, this::search);
+
+        assertEquals(1, searches.get());
+        assertEquals(1, second.size());
+        assertEquals("drill", second.get(0).getName());
+    }
+
+    @Test
+    void clearTestDropsEveryPage() {
+        cache.get("drill", 0, 10, this::search);
+        cache.get("saw", 0, 10, this::search);
+
+        cache.clear();
+        cache.get("drill", 0, 10, this::search);
+        cache.get("saw", 0, 10, this::search);
+
+        assertEquals(4, searches.get());
+    }
+
+    private List<ItemDto> search() {
+        searches.incrementAndGet();
+        return List.of(ItemDto.builder().id(1L).name("drill").build());
+    }
+
+    private Item item(String name, String description, Boolean available) {
+        return Item.builder()
+                .id(1L)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
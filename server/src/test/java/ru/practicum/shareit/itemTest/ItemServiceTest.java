@@ -9,16 +9,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DateTimeException;
 import ru.practicum.shareit.exception.IncorrectUserOperationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.PaginationException;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemBookingProjection;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -26,12 +35,15 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 
@@ -40,6 +52,9 @@ public class ItemServiceTest {
     @Autowired
     private final ItemServiceImpl itemService;
 
+    @Autowired
+    private final ItemBookingProjection itemBookingProjection;
+
     @MockBean
     private final UserRepository userRepository;
 
@@ -55,6 +70,9 @@ public class ItemServiceTest {
     @MockBean
     private final ItemRequestRepository itemRequestRepository;
 
+    @MockBean
+    private final ItemSearchEngine itemSearchEngine;
+
     @Test
     void createTestOk() {
         User owner = User.builder()
@@ -73,6 +91,7 @@ public class ItemServiceTest {
 
         ItemDto actualItem = itemService.create(1L, itemToSave);
 
+        verify(itemSearchEngine).index(any());
         assertThat(itemToSave, is(notNullValue()));
         assertEquals(itemToSave.getName(), actualItem.getName());
         assertEquals(itemToSave.getDescription(), actualItem.getDescription());
@@ -263,7 +282,7 @@ public class ItemServiceTest {
         when(userRepository.findById(2L))
                 .thenReturn(Optional.of(owner));
 
-        when(itemRepository.findAllByOwnerId(any(), any()))
+        when(itemRepository.findOwnerItems(any(), any()))
                 .thenReturn(Page.empty());
 
         Collection<ItemDto> itemDtos = itemService.getUsersItems(2L, 0, 11);
@@ -280,8 +299,8 @@ public class ItemServiceTest {
         List<Item> items = new ArrayList<>();
         items.add(item);
 
-        when(itemRepository.findAllByOwnerId(any(), any()))
-                .thenReturn(new PageImpl<>(items));
+        when(itemRepository.findOwnerItems(any(), any()))
+                .thenReturn(views(items));
 
         LocalDateTime created = LocalDateTime.now();
 
@@ -293,9 +312,9 @@ public class ItemServiceTest {
                 .created(created)
                 .build();
 
-        List<Comment> commentList = List.of(comment);
+        List<CommentView> commentList = List.of(view(comment));
 
-        when(commentRepository.findAllByItemId(1L))
+        when(commentRepository.findAllByItemIdIn(any()))
                 .thenReturn(commentList);
 
         Booking lastBooking = Booking.builder()
@@ -314,10 +333,10 @@ public class ItemServiceTest {
                 .booker(booker)
                 .build();
 
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(any(), any(), any(), any()))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(any(), any(), any(), any()))
-                .thenReturn(List.of(nextBooking));
+        when(bookingRepository.findLastBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(lastBooking)));
+        when(bookingRepository.findNextBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(nextBooking)));
 
         itemDtos = itemService.getUsersItems(2L, 0, 11);
         assertThat(itemDtos, is(notNullValue()));
@@ -331,11 +350,17 @@ public class ItemServiceTest {
                 .build();
 
         items.add(item2);
-        when(commentRepository.findAllByItemId(2L))
-                .thenReturn(Collections.emptyList());
+        when(itemRepository.findOwnerItems(any(), any()))
+                .thenReturn(views(items));
 
         itemDtos = itemService.getUsersItems(2L, 0, 11);
         assertThat(itemDtos, is(notNullValue()));
+        List<ItemDto> itemDtoList = new ArrayList<>(itemDtos);
+        assertEquals(1, itemDtoList.get(0).getComments().size());
+        assertEquals(booker.getName(), itemDtoList.get(0).getComments().get(0).getAuthorName());
+        assertTrue(itemDtoList.get(1).getComments().isEmpty());
+        verify(commentRepository).findAllByItemIdIn(List.of(1L));
+        verify(commentRepository).findAllByItemIdIn(List.of(1L, 2L));
     }
 
     @Test
@@ -407,7 +432,7 @@ public class ItemServiceTest {
                 .author(booker)
                 .created(created)
                 .build();
-        List<Comment> commentList = List.of(comment);
+        List<CommentView> commentList = List.of(view(comment));
 
         ItemDto itemDto;
 
@@ -448,12 +473,15 @@ public class ItemServiceTest {
         itemDto = itemService.findById(1L, 1L);
         assertThat(itemDto, is(notNullValue()));
 
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartBefore(any(), any(), any(), any()))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository.findAllByItemOwnerIdAndBookingStatusIsAndStartAfter(any(), any(), any(), any()))
-                .thenReturn(List.of(nextBooking));
+        when(bookingRepository.findLastBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(lastBooking)));
+        when(bookingRepository.findNextBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(nextBooking)));
         itemDto = itemService.findById(2L, 1L);
         assertThat(itemDto, is(notNullValue()));
+        assertEquals(lastBooking.getId(), itemDto.getLastBooking().getId());
+        assertEquals(booker.getId(), itemDto.getLastBooking().getBookerId());
+        assertEquals(nextBooking.getId(), itemDto.getNextBooking().getId());
         assertEquals(itemDto.getName(), item.getName());
         assertEquals(itemDto.getDescription(), item.getDescription());
         assertEquals(itemDto.getAvailable(), item.getAvailable());
@@ -494,18 +522,44 @@ public class ItemServiceTest {
                 .owner(owner)
                 .build();
 
-        when(itemRepository.searchByText(any(), any()))
-                .thenReturn(new PageImpl<>(Collections.emptyList()));
+        when(itemSearchEngine.search(any(), any()))
+                .thenReturn(Collections.emptyList());
 
         itemDtos = itemService.searchByText("text", 0, 11);
         Assertions.assertTrue(itemDtos.isEmpty());
 
         List<Item> items = List.of(item);
 
-        when(itemRepository.searchByText(any(), any()))
-                .thenReturn(new PageImpl<>(items));
+        when(itemSearchEngine.search(any(), any()))
+                .thenReturn(List.of(1L));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(items);
         itemDtos = itemService.searchByText("item", 0, 11);
         assertThat(itemDtos, is(notNullValue()));
+        assertEquals(1L, itemDtos.iterator().next().getId());
+    }
+
+    @Test
+    void suggestTest() {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+        ItemDto itemToSave = ItemDto.builder()
+                .name("Suggested item")
+                .description("description")
+                .available(true)
+                .build();
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(owner));
+
+        itemService.create(1L, itemToSave);
+
+        assertEquals(List.of("suggested"), itemService.suggest(" sugg", 10));
+        assertTrue(itemService.suggest(" ", 10).isEmpty());
+        assertThrows(PaginationException.class, () -> itemService.suggest("sugg", 0));
     }
 
     @Test
@@ -531,4 +585,291 @@ public class ItemServiceTest {
                 () -> itemService.searchByText("text", -1, 0));
         assertThat(invalidPageParamsException.getMessage(), is("wrong pagination params"));
     }
+
+    @Test
+    void getAvailabilityTestOk() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10L);
+
+        when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        when(bookingRepository.findAllByItemIdAndBookingStatusInAndEndIsAfterAndStartIsBeforeOrderByStartAsc(any(),
+                any(), any(), any()))
+                .thenReturn(Stream.of(
+                        period(1L, from.minusDays(1L), from.plusDays(1L)),
+                        period(2L, from.plusDays(3L), from.plusDays(5L)),
+                        period(3L, from.plusDays(4L), from.plusDays(6L)),
+                        period(4L, from.plusDays(8L), to.plusDays(1L))));
+
+        List<FreeSlotDto> freeSlots = itemService.getAvailability(1L, from, to);
+
+        assertEquals(List.of(new FreeSlotDto(from.plusDays(1L), from.plusDays(3L)),
+                new FreeSlotDto(from.plusDays(6L), from.plusDays(8L))), freeSlots);
+    }
+
+    @Test
+    void getAvailabilityTestOkWithoutBookings() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10L);
+
+        when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        when(bookingRepository.findAllByItemIdAndBookingStatusInAndEndIsAfterAndStartIsBeforeOrderByStartAsc(any(),
+                any(), any(), any()))
+                .thenReturn(Stream.empty());
+
+        assertEquals(List.of(new FreeSlotDto(from, to)), itemService.getAvailability(1L, from, to));
+    }
+
+    @Test
+    void getAvailabilityTestFailThrowsDateTimeException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        DateTimeException dateTimeException = assertThrows(DateTimeException.class,
+                () -> itemService.getAvailability(1L, from, from));
+        assertThat(dateTimeException.getMessage(), is("date time exception"));
+    }
+
+    @Test
+    void getAvailabilityTestFailItemThrowsNotFoundException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        when(itemRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(1L, from, from.plusDays(1L)));
+        assertThat(notFoundException.getMessage(), is("item not found"));
+    }
+
+    @Test
+    void findByIdTestBookingMarksFollowApproval() {
+        User owner = User.builder()
+                .id(2L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .id(3L)
+                .name("booker")
+                .email("booker@mail.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(7L)
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking nextBooking = Booking.builder()
+                .id(20L)
+                .start(now.plusDays(5L))
+                .end(now.plusDays(6L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+        Booking approvedBooking = Booking.builder()
+                .id(21L)
+                .start(now.plusDays(1L))
+                .end(now.plusDays(2L))
+                .item(item)
+                .booker(booker)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+
+        when(itemRepository.findById(7L))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findLastBookings(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(nextBooking)));
+
+        ItemDto itemDto = itemService.findById(2L, 7L);
+        assertNull(itemDto.getLastBooking());
+        assertEquals(nextBooking.getId(), itemDto.getNextBooking().getId());
+
+        itemBookingProjection.approved(approvedBooking);
+
+        itemDto = itemService.findById(2L, 7L);
+        assertEquals(approvedBooking.getId(), itemDto.getNextBooking().getId());
+        verify(bookingRepository, times(1)).findNextBookings(any(), any(), any());
+    }
+
+    @Test
+    void findByIdTestBookingMarksReloadedWhenNextStarted() {
+        User owner = User.builder()
+                .id(2L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+
+        User booker = User.builder()
+                .id(3L)
+                .name("booker")
+                .email("booker@mail.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(9L)
+                .name("item name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking startedBooking = Booking.builder()
+                .id(30L)
+                .start(now.minusMinutes(1L))
+                .end(now.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .build();
+
+        when(itemRepository.findById(9L))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findLastBookings(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(startedBooking)));
+
+        itemService.findById(2L, 9L);
+        itemService.findById(2L, 9L);
+        verify(bookingRepository, times(2)).findNextBookings(any(), any(), any());
+    }
+
+    @Test
+    void findAllByIdTestMarksOnlyViewersItems() {
+        User owner = User.builder()
+                .id(2L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+
+        User otherOwner = User.builder()
+                .id(4L)
+                .name("other owner")
+                .email("other@mail.ru")
+                .build();
+
+        Item ownItem = Item.builder()
+                .id(11L)
+                .name("own item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        Item otherItem = Item.builder()
+                .id(12L)
+                .name("other item")
+                .description("description")
+                .available(true)
+                .owner(otherOwner)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking nextBooking = Booking.builder()
+                .id(40L)
+                .start(now.plusDays(1L))
+                .end(now.plusDays(2L))
+                .item(ownItem)
+                .booker(otherOwner)
+                .bookingStatus(BookingStatus.APPROVED)
+                .build();
+
+        Comment comment = Comment.builder()
+                .id(1L)
+                .text("comment")
+                .item(otherItem)
+                .author(owner)
+                .created(now)
+                .build();
+
+        when(itemRepository.findAllById(any()))
+                .thenReturn(List.of(ownItem, otherItem));
+        when(bookingRepository.findLastBookings(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(any(), any(), any()))
+                .thenReturn(List.of(summary(nextBooking)));
+        when(commentRepository.findAllByItemIdIn(any()))
+                .thenReturn(List.of(view(comment)));
+
+        List<ItemDto> itemDtos = itemService.findAllById(2L, List.of(12L, 11L, 12L, 99L));
+
+        assertEquals(2, itemDtos.size());
+        assertEquals(12L, itemDtos.get(0).getId());
+        assertNull(itemDtos.get(0).getNextBooking());
+        assertEquals(1, itemDtos.get(0).getComments().size());
+        assertEquals(11L, itemDtos.get(1).getId());
+        assertEquals(nextBooking.getId(), itemDtos.get(1).getNextBooking().getId());
+        assertTrue(itemDtos.get(1).getComments().isEmpty());
+        verify(commentRepository, times(1)).findAllByItemIdIn(List.of(12L, 11L));
+        verify(bookingRepository, times(1)).findNextBookings(eq(List.of(11L)), any(), any());
+    }
+
+    private BookingPeriod period(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    private BookingSummary summary(Booking booking) {
+        return new BookingSummary() {
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return booking.getEnd();
+            }
+        };
+    }
+
+    private Page<ItemView> views(List<Item> items) {
+        return new PageImpl<>(items.stream()
+                .map(item -> new ItemView(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                        null))
+                .collect(Collectors.toList()));
+    }
+
+    private CommentView view(Comment comment) {
+        return new CommentView(comment.getId(), comment.getItem().getId(), comment.getText(),
+                comment.getAuthor().getName(), comment.getCreated());
+    }
 }
@@ -1,12 +1,14 @@
 package ru.practicum.shareit.userTest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.controller.UserController;
@@ -16,9 +18,12 @@ import ru.practicum.shareit.user.service.UserService;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -137,4 +142,58 @@ class UserControllerTest {
                 .andExpect(status().isOk());
         verify(mockUserService).delete(1L);
     }
+
+    @Test
+    public void createTestExchangesSmileWhenAsked() throws Exception {
+        ObjectMapper smileMapper = new SmileMapper();
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+        when(mockUserService.create(incUserDto))
+                .thenReturn(userDto);
+
+        byte[] body = mvc.perform(post("/users")
+                        .content(smileMapper.writeValueAsBytes(incUserDto))
+                        .contentType(smile)
+                        .accept(smile, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(userDto, smileMapper.readValue(body, UserDto.class));
+    }
+
+    @Test
+    public void findByIdTestAnswersJsonByDefault() throws Exception {
+        when(mockUserService.findById(1L))
+                .thenReturn(userDto);
+
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id", is(userDto.getId()), Long.class));
+    }
+
+    @Test
+    public void findByIdTestAnswersNotModifiedForCurrentETag() throws Exception {
+        when(mockUserService.findById(1L))
+                .thenReturn(userDto);
+
+        String eTag = mvc.perform(get("/users/1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        userDto.setName("renamed");
+        mvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("renamed")));
+    }
 }
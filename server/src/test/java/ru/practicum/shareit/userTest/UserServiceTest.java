@@ -69,6 +69,28 @@ public class UserServiceTest {
         assertThat(userDto, is(notNullValue()));
     }
 
+    @Test
+    void findAllByIdTestKeepsRequestedOrder() {
+        User first = User.builder()
+                .id(1L)
+                .name("first")
+                .email("first@mail.ru")
+                .build();
+        User second = User.builder()
+                .id(2L)
+                .name("second")
+                .email("second@mail.ru")
+                .build();
+
+        when(userRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(first, second));
+
+        List<UserDto> userDtos = userService.findAllById(List.of(2L, 7L, 1L, 2L));
+        assertEquals(2, userDtos.size());
+        assertEquals(2L, userDtos.get(0).getId());
+        assertEquals(1L, userDtos.get(1).getId());
+    }
+
     @Test
     void findByIdTestThrowsNotFoundException() {
         when(userRepository.findById(Mockito.any()))